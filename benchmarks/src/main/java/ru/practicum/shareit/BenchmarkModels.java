@@ -0,0 +1,64 @@
+package ru.practicum.shareit;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Модели для бенчмарков мапперов и сериализации, заполненные так же, как после загрузки из базы
+ */
+public final class BenchmarkModels {
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 9, 1, 12, 0);
+
+    private BenchmarkModels() {
+    }
+
+    public static User user(long id) {
+        return new User(id, "User" + id, id + "@user.com");
+    }
+
+    /**
+     * Вещь владельца с запросом, последним и следующим бронированием и заданным количеством отзывов
+     */
+    public static Item item(long id, int comments) {
+        User owner = user(1);
+        User booker = user(2);
+        Item item = new Item(id, "Item" + id, "Description of item " + id, true, owner,
+                new ItemRequest(id, "Request" + id, booker, NOW, new ArrayList<>()), null, null, new ArrayList<>());
+
+        item.setLastBooking(booking(id * 2, item, booker));
+        item.setNextBooking(booking(id * 2 + 1, item, booker));
+
+        for (int i = 0; i < comments; i++) {
+            item.getComments().add(new Comment((long) i, "Comment " + i + " on item " + id, item, booker,
+                    NOW.plusMinutes(i)));
+        }
+
+        return item;
+    }
+
+    public static Booking booking(long id, Item item, User booker) {
+        return new Booking(id, NOW.plusDays(id), NOW.plusDays(id + 1), item, booker, BookingStatus.APPROVED);
+    }
+
+    /**
+     * Запрос вещи с заданным количеством предложенных вещей
+     */
+    public static ItemRequest itemRequest(long id, int items) {
+        ItemRequest itemRequest = new ItemRequest(id, "Request" + id, user(2), NOW, new ArrayList<>());
+
+        for (long itemId = 1; itemId <= items; itemId++) {
+            itemRequest.getItems().add(new Item(itemId, "Item" + itemId, "Description of item " + itemId, true,
+                    user(1), itemRequest, null, null, List.of()));
+        }
+
+        return itemRequest;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enums.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запросы репозиториев без слоя сервисов. Каждый вызов выполняется в собственной транзакции репозитория
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+    private static final Pageable BOOKINGS_PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "start"));
+    private static final Pageable ITEMS_PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "id"));
+
+    private BookingRepository bookingRepository;
+    private ItemRepository itemRepository;
+
+    @Setup
+    public void setUp(ShareItDataset dataset) {
+        bookingRepository = dataset.context.getBean(BookingRepository.class);
+        itemRepository = dataset.context.getBean(ItemRepository.class);
+    }
+
+    @Benchmark
+    public List<Booking> findAllByItemOwnerId(ShareItDataset dataset) {
+        return bookingRepository.findAllByItemOwnerId(dataset.ownerId, BOOKINGS_PAGE);
+    }
+
+    @Benchmark
+    public List<Booking> findLastAndNextByItemIdIn(ShareItDataset dataset) {
+        return bookingRepository.findLastAndNextByItemIdIn(dataset.ownerItemIds, BookingStatus.APPROVED);
+    }
+
+    @Benchmark
+    public List<Item> findAllByOwnerId(ShareItDataset dataset) {
+        return itemRepository.findAllByOwnerId(dataset.ownerId, ITEMS_PAGE);
+    }
+
+    @Benchmark
+    public List<Item> search() {
+        return itemRepository.search("drill", ITEMS_PAGE);
+    }
+}
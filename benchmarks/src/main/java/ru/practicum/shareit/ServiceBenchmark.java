@@ -0,0 +1,96 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.BookingState;
+import ru.practicum.shareit.exception.ObjectNotFountException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Методы сервисов, которые обслуживают самые частые запросы, на наборе данных {@link ShareItDataset}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    private UserService userService;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private ItemRequestService itemRequestService;
+
+    @Setup
+    public void setUp(ShareItDataset dataset) {
+        userService = dataset.context.getBean(UserService.class);
+        itemService = dataset.context.getBean(ItemService.class);
+        bookingService = dataset.context.getBean(BookingService.class);
+        itemRequestService = dataset.context.getBean(ItemRequestService.class);
+    }
+
+    @Benchmark
+    public User getUserById(ShareItDataset dataset) throws ObjectNotFountException {
+        return userService.getUserById(dataset.ownerId);
+    }
+
+    /**
+     * Запрос несуществующего пользователя, ответ 404
+     */
+    @Benchmark
+    public String getMissingUserById() {
+        try {
+            return userService.getUserById(Long.MAX_VALUE).getName();
+        } catch (ObjectNotFountException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public Item getItemById(ShareItDataset dataset) throws ObjectNotFountException {
+        return itemService.getItemById(dataset.ownerId, dataset.itemId);
+    }
+
+    @Benchmark
+    public Collection<Item> getAllItemsByUserId(ShareItDataset dataset) throws ObjectNotFountException {
+        return itemService.getAllByUserId(dataset.ownerId, 0, 20);
+    }
+
+    @Benchmark
+    public Collection<Item> searchItemByText() {
+        return itemService.searchItemByText("drill", 0, 20);
+    }
+
+    @Benchmark
+    public Collection<Booking> getAllBookingsByOwnerId(ShareItDataset dataset) throws ObjectNotFountException {
+        return bookingService.getAllByOwnerId(dataset.ownerId, BookingState.ALL, 0, 20);
+    }
+
+    @Benchmark
+    public Collection<Booking> getAllBookingsByBookerId(ShareItDataset dataset) throws ObjectNotFountException {
+        return bookingService.getAllByBookerId(dataset.bookerId, BookingState.ALL, 0, 20);
+    }
+
+    @Benchmark
+    public Collection<ItemRequest> getAllItemRequest(ShareItDataset dataset) throws ObjectNotFountException {
+        return itemRequestService.getAllItemRequest(dataset.ownerId, 0, 20);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сервер с базой H2 в памяти, заполненной одним и тем же набором данных для каждого запуска.
+ * Запускается один раз на форк и используется бенчмарками сервисов и репозиториев
+ */
+@State(Scope.Benchmark)
+public class ShareItDataset {
+    public static final int OWNERS = 10;
+    public static final int ITEMS_PER_OWNER = 20;
+    public static final int BOOKINGS_PER_ITEM = 10;
+    public static final int REQUESTS = 50;
+
+    public ConfigurableApplicationContext context;
+    public long ownerId;
+    public long bookerId;
+    public long itemId;
+    public List<Long> ownerItemIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmarks",
+                        "shareit.query-stats.enabled=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.transaction.interceptor=WARN",
+                        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "logging.level.ru.practicum.shareit=WARN"
+                )
+                .run();
+
+        UserService userService = context.getBean(UserService.class);
+        ItemService itemService = context.getBean(ItemService.class);
+        BookingService bookingService = context.getBean(BookingService.class);
+        ItemRequestService itemRequestService = context.getBean(ItemRequestService.class);
+
+        bookerId = userService.createUser(new User(null, "Booker", "booker@user.com")).getId();
+        ownerItemIds = new ArrayList<>();
+
+        for (int request = 0; request < REQUESTS; request++) {
+            itemRequestService.createItemRequest(bookerId,
+                    new ItemRequest(null, "Request " + request, null, null, new ArrayList<>()));
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        for (int owner = 0; owner < OWNERS; owner++) {
+            long userId = userService.createUser(new User(null, "Owner" + owner, owner + "@owner.com")).getId();
+            List<Item> items = new ArrayList<>();
+
+            for (int item = 0; item < ITEMS_PER_OWNER; item++) {
+                items.add(new Item(null, "Item " + owner + "-" + item, "Drill number " + item, true, null,
+                        null, null, null, new ArrayList<>()));
+            }
+
+            for (ItemImportResultDto result : itemService.importItems(userId, items)) {
+                Item item = items.get(result.getIndex());
+                item.setId(result.getId());
+
+                for (int booking = 0; booking < BOOKINGS_PER_ITEM; booking++) {
+                    Booking created = bookingService.createBooking(bookerId, new Booking(null,
+                            start.plusDays(booking * 2L), start.plusDays(booking * 2L + 1), item, null, null));
+
+                    if (booking % 2 == 0) {
+                        bookingService.setApproved(userId, created.getId(), true);
+                    }
+                }
+
+                if (owner == 0) {
+                    ownerItemIds.add(item.getId());
+                }
+            }
+
+            if (owner == 0) {
+                ownerId = userId;
+            }
+        }
+
+        itemId = ownerItemIds.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.BenchmarkModels;
+import ru.practicum.shareit.booking.dto.CreatedBookingDto;
+import ru.practicum.shareit.booking.dto.GottenBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingMapperBenchmark {
+    private final BookingMapper bookingMapper = new BookingMapper();
+
+    private Booking booking;
+    private CreatedBookingDto createdBookingDto;
+    private GottenBookingDto gottenBookingDto;
+
+    @Setup
+    public void setUp() {
+        booking = BenchmarkModels.booking(1, BenchmarkModels.item(1, 0), BenchmarkModels.user(2));
+        createdBookingDto = bookingMapper.toCreatedBookingDto(booking);
+        gottenBookingDto = bookingMapper.toGottenBookingDto(booking);
+    }
+
+    @Benchmark
+    public CreatedBookingDto toCreatedBookingDto() {
+        return bookingMapper.toCreatedBookingDto(booking);
+    }
+
+    @Benchmark
+    public GottenBookingDto toGottenBookingDto() {
+        return bookingMapper.toGottenBookingDto(booking);
+    }
+
+    @Benchmark
+    public Booking fromCreatedBookingDto() {
+        return bookingMapper.toBooking(createdBookingDto);
+    }
+
+    @Benchmark
+    public Booking fromGottenBookingDto() {
+        return bookingMapper.toBooking(gottenBookingDto);
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.exception;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность ответов 404: создание и перехват исключения отсутствия объекта до и после перехода
+ * на исключения без стека вызовов с ограничением частоты записи в лог. legacy повторяет прежний
+ * {@link LoggingException}: стек вызовов заполняется, каждое исключение записывается в лог с уровнем ERROR.
+ * Исключение создается на глубине depth вызовов, при обработке запроса в Tomcat и Spring MVC стек
+ * сервиса имеет глубину порядка сотни кадров. Лог пишется в пустой поток, поэтому в результат входит
+ * форматирование сообщений, но не вывод в консоль
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpectedErrorBenchmark {
+    @Param({"10", "120"})
+    public int depth;
+
+    private long userId;
+
+    @Setup
+    public void setUp() {
+        logToNowhere(LegacyLoggingException.class);
+        logToNowhere(LoggingException.class);
+    }
+
+    @Benchmark
+    public String legacy() {
+        try {
+            return String.valueOf(throwLegacy(depth, userId++));
+        } catch (LegacyLoggingException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String current() {
+        try {
+            return String.valueOf(throwCurrent(depth, userId++));
+        } catch (ObjectNotFountException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static int throwLegacy(int depth, long userId) throws LegacyLoggingException {
+        if (depth == 0) {
+            throw new LegacyLoggingException(String.format("Пользователь с id %d не существует", userId),
+                    "GetUserById");
+        }
+
+        return throwLegacy(depth - 1, userId) + 1;
+    }
+
+    private static int throwCurrent(int depth, long userId) throws ObjectNotFountException {
+        if (depth == 0) {
+            throw new ObjectNotFountException(String.format("Пользователь с id %d не существует", userId),
+                    "GetUserById");
+        }
+
+        return throwCurrent(depth - 1, userId) + 1;
+    }
+
+    private static void logToNowhere(Class<?> type) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5level --- [%thread] %logger{39} : %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        Logger logger = context.getLogger(type);
+        logger.detachAndStopAllAppenders();
+        logger.setAdditive(false);
+        logger.setLevel(Level.ALL);
+        logger.addAppender(appender);
+    }
+
+    /**
+     * Исключение в прежнем виде
+     */
+    static class LegacyLoggingException extends Exception {
+        private static final org.slf4j.Logger log = LoggerFactory.getLogger(LegacyLoggingException.class);
+
+        LegacyLoggingException(String message, String className) {
+            super(message);
+
+            log.error("{}. {}", className, message);
+        }
+    }
+}
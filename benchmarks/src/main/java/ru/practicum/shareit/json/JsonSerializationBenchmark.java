@@ -0,0 +1,106 @@
+package ru.practicum.shareit.json;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.BenchmarkModels;
+import ru.practicum.shareit.booking.dto.CreatedBookingDto;
+import ru.practicum.shareit.booking.dto.GottenBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Сериализация страниц DTO в JSON тем же ObjectMapper, который собирает Spring Boot, и разбор тела запроса
+ * на создание бронирования
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"1", "20"})
+    public int pageSize;
+
+    private List<GottenBookingDto> bookings;
+    private List<ItemDto> items;
+    private List<ItemRequestDto> itemRequests;
+    private ObjectWriter writer;
+    private ObjectReader createdBookingReader;
+    private byte[] createdBookingJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        BookingMapper bookingMapper = new BookingMapper();
+        ItemMapper itemMapper = new ItemMapper();
+        ItemRequestMapper itemRequestMapper = new ItemRequestMapper();
+        User booker = BenchmarkModels.user(2);
+
+        bookings = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> {
+                    Item item = BenchmarkModels.item(id, 0);
+                    return bookingMapper.toGottenBookingDto(BenchmarkModels.booking(id, item, booker));
+                })
+                .collect(Collectors.toList());
+        items = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> itemMapper.toItemDto(BenchmarkModels.item(id, 3)))
+                .collect(Collectors.toList());
+        itemRequests = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> itemRequestMapper.toItemRequestDto(BenchmarkModels.itemRequest(id, 3)))
+                .collect(Collectors.toList());
+
+        writer = objectMapper.writer();
+        createdBookingReader = objectMapper.readerFor(CreatedBookingDto.class);
+        createdBookingJson = objectMapper.writeValueAsBytes(
+                bookingMapper.toCreatedBookingDto(BenchmarkModels.booking(1, BenchmarkModels.item(1, 0), booker)));
+    }
+
+    @Benchmark
+    public byte[] writeBookings() throws JsonProcessingException {
+        return writer.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] writeItems() throws JsonProcessingException {
+        return writer.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] writeItemRequests() throws JsonProcessingException {
+        return writer.writeValueAsBytes(itemRequests);
+    }
+
+    @Benchmark
+    public CreatedBookingDto readCreatedBooking() throws IOException {
+        return createdBookingReader.readValue(createdBookingJson);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы ограничителя частоты на запрос: поиск корзины по ключу эндпоинт-клиент и обновление
+ * ее состояния. Ограничение настроено так, что запросы не отклоняются, поэтому измеряется только путь
+ * разрешенного запроса. clients — количество клиентов, между которыми распределяются запросы
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBucketRateLimiterBenchmark {
+    @Param({"1", "1000"})
+    public int clients;
+
+    private TokenBucketRateLimiter rateLimiter;
+    private TokenBucketRateLimiter.Rate rate;
+    private String[] clientIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(Integer.MAX_VALUE / 2);
+        limit.setRefillPerSecond(1_000_000_000);
+
+        rateLimiter = new TokenBucketRateLimiter(new RateLimitProperties());
+        rate = new TokenBucketRateLimiter.Rate(limit);
+        clientIds = new String[clients];
+
+        for (int i = 0; i < clients; i++) {
+            clientIds[i] = String.valueOf(i);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        next = next + 1 == clients ? 0 : next + 1;
+        return rateLimiter.tryAcquire("GET /bookings/owner", clientIds[next], rate);
+    }
+
+    /**
+     * Одновременные запросы нескольких потоков к корзинам одних и тех же клиентов
+     */
+    @Benchmark
+    @Threads(4)
+    public long tryAcquireConcurrently() {
+        int client = (int) (Thread.currentThread().getId() % clients);
+        return rateLimiter.tryAcquire("GET /bookings/owner", clientIds[client], rate);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+
+import javax.validation.Valid;
+
+@Slf4j
+@Validated
+@RestController
+@RequestMapping(path = "/batch")
+@RequiredArgsConstructor
+public class BatchController {
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    private final BatchDispatcher batchDispatcher;
+
+    @PostMapping
+    public ResponseEntity<BatchResponseDto> executeBatch(@RequestHeader(HEADER_USER_ID) long userId,
+                                                         @Valid @RequestBody BatchRequestDto batchRequestDto) {
+        log.info("Batch of {} requests, userId={}", batchRequestDto.getRequests().size(), userId);
+        return ResponseEntity.ok(batchDispatcher.execute(userId, batchRequestDto.getRequests()));
+    }
+}
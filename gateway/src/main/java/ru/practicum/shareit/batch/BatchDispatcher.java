@@ -0,0 +1,216 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.UriUtils;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.error.ErrorResponse;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.ratelimit.RateLimitInterceptor;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.user.UserClient;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Параллельное выполнение подзапросов пакетного запроса клиентами сервера. Каждый подзапрос списывается
+ * с корзины ограничения частоты своего эндпоинта, а его параметры проверяются так же, как у прямого запроса.
+ * Подзапросы всех пакетных запросов выполняются общим пулом потоков ограниченного размера с ограниченной
+ * очередью, поэтому пакетные запросы не могут занять больше потоков и соединений с сервером, чем задано
+ * в настройках. Ответы подзапросов ждутся не дольше таймаута пакета, после него подзапрос отменяется,
+ * ошибка одного подзапроса не влияет на остальные
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchDispatcher {
+    private final BatchRoutes routes;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final ObjectMapper objectMapper;
+    private final BatchProperties properties;
+    private final ThreadPoolExecutor executor;
+
+    public BatchDispatcher(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                           UserClient userClient, ItemClient itemClient, BookingClient bookingClient,
+                           ItemRequestClient itemRequestClient, RateLimitInterceptor rateLimitInterceptor,
+                           ObjectMapper objectMapper, BatchProperties properties) {
+        this.routes = new BatchRoutes(handlerMapping, userClient, itemClient, bookingClient, itemRequestClient);
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("batch-"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public BatchResponseDto execute(long userId, List<BatchRequestDto.SubRequest> requests) {
+        List<Future<BatchResponseDto.SubResponse>> responses = requests.stream()
+                .map(request -> submit(userId, request))
+                .collect(Collectors.toList());
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        List<BatchResponseDto.SubResponse> result = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            result.add(await(requests.get(i), responses.get(i), deadline));
+        }
+
+        return new BatchResponseDto(result);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Future<BatchResponseDto.SubResponse> submit(long userId, BatchRequestDto.SubRequest request) {
+        try {
+            return executor.submit(() -> send(userId, request));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(
+                    error(request, HttpStatus.SERVICE_UNAVAILABLE, "Too many batch requests in progress"));
+        }
+    }
+
+    /**
+     * Ожидание ответа подзапроса до общего для пакета срока. Не успевший подзапрос отменяется: если он еще
+     * в очереди, он не будет выполнен, а выполняющийся поток прерывается
+     */
+    private BatchResponseDto.SubResponse await(BatchRequestDto.SubRequest request,
+                                               Future<BatchResponseDto.SubResponse> response, long deadline) {
+        try {
+            return response.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            response.cancel(true);
+            return error(request, HttpStatus.GATEWAY_TIMEOUT, "Request did not complete in time");
+        } catch (ExecutionException e) {
+            log.warn("Batch request failed, path={}", request.getPath(), e.getCause());
+            return error(request, HttpStatus.INTERNAL_SERVER_ERROR, "Request failed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.cancel(true);
+            return error(request, HttpStatus.SERVICE_UNAVAILABLE, "Request was interrupted");
+        }
+    }
+
+    /**
+     * Разбор пути подзапроса на путь эндпоинта и параметры, списание токена с корзины эндпоинта и запрос
+     * к серверу. Ошибки параметров возвращаются с кодом 400, как ответы ErrorHandler шлюза
+     */
+    private BatchResponseDto.SubResponse send(long userId, BatchRequestDto.SubRequest request) {
+        String path = request.getPath();
+        int queryStart = path.indexOf('?');
+        String routePath = queryStart < 0 ? path : path.substring(0, queryStart);
+        Optional<BatchRoutes.Route> route = routes.find(routePath);
+
+        if (route.isEmpty()) {
+            return error(request, HttpStatus.NOT_FOUND, "Unknown path: " + routePath);
+        }
+
+        if (!route.get().isSupported()) {
+            return error(request, HttpStatus.NOT_FOUND, "Path is not available in batch: " + routePath);
+        }
+
+        if (rateLimitInterceptor.tryAcquire(HttpMethod.GET.name(), route.get().getPattern(),
+                String.valueOf(userId)) > 0) {
+            return error(request, HttpStatus.TOO_MANY_REQUESTS, "Too many requests");
+        }
+
+        MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+
+        if (queryStart >= 0) {
+            for (String parameter : path.substring(queryStart + 1).split("&")) {
+                if (parameter.isEmpty()) {
+                    continue;
+                }
+
+                int valueStart = parameter.indexOf('=');
+                String name = valueStart < 0 ? parameter : parameter.substring(0, valueStart);
+                String value = valueStart < 0 ? "" : parameter.substring(valueStart + 1);
+
+                parameters.add(UriUtils.decode(name, StandardCharsets.UTF_8),
+                        UriUtils.decode(value, StandardCharsets.UTF_8));
+            }
+        }
+
+        ResponseEntity<Object> response;
+
+        try {
+            response = routes.invoke(route.get(), userId, routePath, parameters);
+        } catch (BatchRoutes.BadSubRequestException e) {
+            return error(request, HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        return new BatchResponseDto.SubResponse(request.getId(), response.getStatusCodeValue(), body(response));
+    }
+
+    /**
+     * JSON тела ответа для вставки в ответ пакета. Ответ сервера в формате JSON вставляется как есть,
+     * остальные ответы (например, страница ошибки прокси) вставляются строкой JSON
+     */
+    private String body(ResponseEntity<Object> response) {
+        Object body = response.getBody();
+
+        if (body == null) {
+            return null;
+        }
+
+        try {
+            if (body instanceof byte[]) {
+                byte[] bytes = (byte[]) body;
+                MediaType contentType = response.getHeaders().getContentType();
+
+                if (bytes.length == 0) {
+                    return null;
+                }
+                if (contentType != null && (contentType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                        || "json".equals(contentType.getSubtypeSuffix()))) {
+                    return new String(bytes, StandardCharsets.UTF_8);
+                }
+
+                return objectMapper.writeValueAsString(new String(bytes, StandardCharsets.UTF_8));
+            }
+
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private BatchResponseDto.SubResponse error(BatchRequestDto.SubRequest request, HttpStatus status,
+                                               String message) {
+        try {
+            return new BatchResponseDto.SubResponse(request.getId(), status.value(),
+                    objectMapper.writeValueAsString(new ErrorResponse(message)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.batch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки выполнения пакетных запросов
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.batch")
+public class BatchProperties {
+    /**
+     * Количество потоков, выполняющих подзапросы всех пакетных запросов
+     */
+    private int threads = 32;
+
+    /**
+     * Количество подзапросов, ожидающих свободного потока. Подзапросы сверх него получают 503
+     */
+    private int queueCapacity = 256;
+
+    /**
+     * Время ожидания ответов на подзапросы пакета. Подзапрос, не успевший ответить, получает 504 и отменяется.
+     * Прерывание не останавливает чтение из сокета, поэтому таймаут не должен быть меньше самого долгого
+     * запроса клиента (ожидание разрешения, соединение и чтение ответа), иначе отмененные подзапросы
+     * продолжают занимать потоки пакетных запросов
+     */
+    private Duration timeout = Duration.ofSeconds(20);
+}
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.batch;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.enums.BookingState;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.user.UserClient;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * GET-эндпоинты шлюза, доступные в пакетном запросе, и запросы клиентов сервера, которыми они выполняются.
+ * Путь подзапроса сопоставляется с шаблонами путей GET-эндпоинтов контроллеров, как путь обычного запроса,
+ * а параметры проверяются так же, как в контроллерах. Недоступны эндпоинты, которые пишут ответ в поток (выгрузки)
+ */
+class BatchRoutes {
+    private final List<String> patterns = new ArrayList<>();
+    private final Map<String, Function<Arguments, ResponseEntity<Object>>> calls = new HashMap<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    BatchRoutes(RequestMappingHandlerMapping handlerMapping, UserClient userClient, ItemClient itemClient,
+                BookingClient bookingClient, ItemRequestClient itemRequestClient) {
+        for (RequestMappingInfo mapping : handlerMapping.getHandlerMethods().keySet()) {
+            if (mapping.getMethodsCondition().getMethods().contains(RequestMethod.GET)) {
+                patterns.addAll(mapping.getPatternValues());
+            }
+        }
+
+        calls.put("/users", arguments -> userClient.getAll());
+        calls.put("/users/{userId}", arguments -> userClient.getUserById(arguments.id("userId")));
+        calls.put("/items", arguments -> itemClient.getAllByUserId(arguments.userId,
+                arguments.from(), arguments.size()));
+        calls.put("/items/{itemId}", arguments -> itemClient.getItemById(arguments.userId, arguments.id("itemId")));
+        calls.put("/items/search", arguments -> itemClient.searchItemByText(arguments.required("text"),
+                arguments.from(), arguments.size()));
+        calls.put("/bookings", arguments -> bookingClient.getAllByBookerId(arguments.userId,
+                arguments.state(), arguments.from(), arguments.size(), arguments.cursor()));
+        calls.put("/bookings/owner", arguments -> bookingClient.getAllByOwnerId(arguments.userId,
+                arguments.state(), arguments.from(), arguments.size(), arguments.cursor()));
+        calls.put("/bookings/{bookingId}", arguments -> bookingClient.getBookingById(arguments.userId,
+                arguments.id("bookingId")));
+        calls.put("/requests", arguments -> itemRequestClient.getItemRequestsByUserId(arguments.userId));
+        calls.put("/requests/all", arguments -> itemRequestClient.getAllItemRequest(arguments.userId,
+                arguments.from(), arguments.size()));
+        calls.put("/requests/{requestId}", arguments -> itemRequestClient.getItemRequestById(arguments.userId,
+                arguments.id("requestId")));
+    }
+
+    /**
+     * GET-эндпоинт, шаблон пути которого точнее всего соответствует пути подзапроса без параметров.
+     * Сопоставление идет со всеми GET-эндпоинтами, чтобы путь выгрузки не принимался за переменную пути
+     * соседнего эндпоинта, доступность в пакетном запросе проверяется вызывающим кодом
+     */
+    Optional<Route> find(String path) {
+        Comparator<String> specificity = pathMatcher.getPatternComparator(path);
+
+        return patterns.stream()
+                .filter(pattern -> pathMatcher.match(pattern, path))
+                .min(specificity)
+                .map(pattern -> new Route(pattern, calls.get(pattern)));
+    }
+
+    /**
+     * Выполнение подзапроса клиентом сервера
+     *
+     * @throws BadSubRequestException параметр отсутствует, не преобразуется к нужному типу или не проходит проверку
+     */
+    ResponseEntity<Object> invoke(Route route, long userId, String path, MultiValueMap<String, String> parameters) {
+        return route.call.apply(new Arguments(userId, pathMatcher.extractUriTemplateVariables(route.pattern, path),
+                parameters));
+    }
+
+    static class Route {
+        private final String pattern;
+        private final Function<Arguments, ResponseEntity<Object>> call;
+
+        Route(String pattern, Function<Arguments, ResponseEntity<Object>> call) {
+            this.pattern = pattern;
+            this.call = call;
+        }
+
+        String getPattern() {
+            return pattern;
+        }
+
+        /**
+         * Эндпоинт возвращает ответ целиком и его можно выполнить в пакетном запросе
+         */
+        boolean isSupported() {
+            return call != null;
+        }
+    }
+
+    /**
+     * Параметры подзапроса с теми же значениями по умолчанию и ограничениями, что и в контроллерах
+     */
+    private static class Arguments {
+        private final long userId;
+        private final Map<String, String> variables;
+        private final MultiValueMap<String, String> parameters;
+
+        Arguments(long userId, Map<String, String> variables, MultiValueMap<String, String> parameters) {
+            this.userId = userId;
+            this.variables = variables;
+            this.parameters = parameters;
+        }
+
+        long id(String name) {
+            String value = variables.get(name);
+
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new BadSubRequestException(String.format("Unknown %s: %s", name, value));
+            }
+        }
+
+        String required(String name) {
+            String value = parameters.getFirst(name);
+
+            if (value == null) {
+                throw new BadSubRequestException(String.format("Required parameter '%s' is not present", name));
+            }
+            return value;
+        }
+
+        int from() {
+            int from = number("from", 0);
+
+            if (from < 0) {
+                throw new BadSubRequestException("from: must be greater than or equal to 0");
+            }
+            return from;
+        }
+
+        int size() {
+            int size = number("size", 10);
+
+            if (size <= 0) {
+                throw new BadSubRequestException("size: must be greater than 0");
+            }
+            return size;
+        }
+
+        BookingState state() {
+            String value = parameters.getFirst("state");
+
+            try {
+                return StringUtils.hasLength(value) ? BookingState.valueOf(value) : BookingState.ALL;
+            } catch (IllegalArgumentException e) {
+                throw new BadSubRequestException(String.format("Unknown state: %s", value));
+            }
+        }
+
+        /**
+         * Курсор для запроса к серверу, как в BookingController: первая страница в режиме keyset
+         * запрашивается с пустым курсором
+         */
+        String cursor() {
+            String cursor = parameters.getFirst("cursor");
+            boolean keyset = Boolean.parseBoolean(parameters.getFirst("keyset"));
+
+            return cursor == null && keyset ? "" : cursor;
+        }
+
+        private int number(String name, int defaultValue) {
+            String value = parameters.getFirst(name);
+
+            try {
+                return StringUtils.hasLength(value) ? Integer.parseInt(value) : defaultValue;
+            } catch (NumberFormatException e) {
+                throw new BadSubRequestException(String.format("Unknown %s: %s", name, value));
+            }
+        }
+    }
+
+    /**
+     * Параметр подзапроса отсутствует или имеет неверный формат
+     */
+    static class BadSubRequestException extends RuntimeException {
+        BadSubRequestException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO пакетного запроса: список GET-подзапросов к ресурсам шлюза, выполняемых параллельно
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchRequestDto {
+    public static final int MAX_REQUESTS = 20;
+
+    @Valid
+    @NotEmpty
+    @Size(max = MAX_REQUESTS)
+    private List<SubRequest> requests;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class SubRequest {
+        /**
+         * Идентификатор подзапроса, возвращается в его ответе
+         */
+        private String id;
+        /**
+         * Путь GET-эндпоинта шлюза с параметрами запроса, например /bookings/owner?state=ALL. Сегменты пути
+         * не могут быть пустыми или содержать точки, поэтому путь не выходит за пределы ресурса
+         */
+        @NotBlank
+        @Pattern(regexp = "/(users|items|bookings|requests)(/[\\w-]+)*(\\?[^{}#]*)?")
+        private String path;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO ответа на пакетный запрос: ответы подзапросов в порядке подзапросов
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchResponseDto {
+    private List<SubResponse> responses;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class SubResponse {
+        private String id;
+        private int status;
+        /**
+         * JSON ответа сервера, вставляется в ответ шлюза без повторного разбора
+         */
+        @JsonRawValue
+        private String body;
+    }
+}
@@ -9,9 +9,11 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.enums.BookingState;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 
 @Slf4j
 @Validated
@@ -49,17 +51,44 @@ public class BookingController {
     public ResponseEntity<Object> getAllByBookerId(@RequestHeader(HEADER_USER_ID) long userId,
                                                    @RequestParam(defaultValue = "ALL") BookingState state,
                                                    @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                   @RequestParam(defaultValue = "10") @Positive Integer size) {
-        log.info("Get booking with state {}, userId={}, from={}, size={}", state, userId, from, size);
-        return bookingClient.getAllByBookerId(userId, state, from, size);
+                                                   @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "false") boolean keyset) {
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}, keyset={}",
+                state, userId, from, size, cursor, keyset);
+        return bookingClient.getAllByBookerId(userId, state, from, size, keysetCursor(cursor, keyset));
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getAllByOwnerId(@RequestHeader(HEADER_USER_ID) long userId,
                                                   @RequestParam(defaultValue = "ALL") BookingState state,
                                                   @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                  @RequestParam(defaultValue = "10") @Positive Integer size) {
-        log.info("Get owner booking with state {}, userId={}, from={}, size={}", state, userId, from, size);
-        return bookingClient.getAllByOwnerId(userId, state, from, size);
+                                                  @RequestParam(defaultValue = "10") @Positive Integer size,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "false") boolean keyset) {
+        log.info("Get owner booking with state {}, userId={}, from={}, size={}, cursor={}, keyset={}",
+                state, userId, from, size, cursor, keyset);
+        return bookingClient.getAllByOwnerId(userId, state, from, size, keysetCursor(cursor, keyset));
+    }
+
+    @GetMapping("/export")
+    public void exportAllByBookerId(@RequestHeader(HEADER_USER_ID) long userId, HttpServletResponse response)
+            throws IOException {
+        log.info("Export bookings, userId={}", userId);
+        bookingClient.exportAllByBookerId(userId, response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportAllByOwnerId(@RequestHeader(HEADER_USER_ID) long userId, HttpServletResponse response)
+            throws IOException {
+        log.info("Export owner bookings, userId={}", userId);
+        bookingClient.exportAllByOwnerId(userId, response);
+    }
+
+    /**
+     * Курсор для запроса к серверу: первая страница в режиме keyset запрашивается с пустым курсором
+     */
+    private static String keysetCursor(String cursor, boolean keyset) {
+        return cursor == null && keyset ? "" : cursor;
     }
 }
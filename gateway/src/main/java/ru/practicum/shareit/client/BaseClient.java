@@ -1,22 +1,70 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.error.ErrorResponse;
 
+import javax.servlet.http.HttpServletResponse;
+
+@Slf4j
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade", "content-length");
+
     protected final RestTemplate rest;
+    @Nullable
+    private final ResponseCache.Region cache;
+    @Nullable
+    private final RequestCoalescer coalescer;
+    @Nullable
+    private final ClientPolicy policy;
+    private final ObjectMapper objectMapper;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, null, null, new ObjectMapper());
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable ResponseCache.Region cache, @Nullable RequestCoalescer coalescer) {
+        this(rest, cache, coalescer, null, new ObjectMapper());
+    }
+
+    /**
+     * @param objectMapper сериализация ошибок, которые шлюз сам пишет в ответ при потоковой передаче
+     */
+    public BaseClient(RestTemplate rest, @Nullable ResponseCache.Region cache, @Nullable RequestCoalescer coalescer,
+                      @Nullable ClientPolicy policy, ObjectMapper objectMapper) {
         this.rest = rest;
+        this.cache = cache;
+        this.coalescer = coalescer;
+        this.policy = policy;
+        this.objectMapper = objectMapper;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -27,8 +75,63 @@ public class BaseClient {
         return get(path, userId, null);
     }
 
+    /**
+     * GET-запрос с заголовком If-None-Match клиента, если он есть. Ответ 304 сервера передается клиенту как есть
+     */
     protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, clientIfNoneMatch());
+    }
+
+    /**
+     * GET-запрос, ответ на который берется из кеша клиента, если он там есть.
+     * Ответ 304 на If-None-Match клиента формирует Spring MVC по ETag ответа из кеша
+     *
+     * @param endpoint название эндпоинта в настройках и метриках
+     */
+    protected ResponseEntity<Object> cachedGet(String endpoint, String path, Long userId) {
+        return cachedGet(endpoint, path, userId, null);
+    }
+
+    protected ResponseEntity<Object> cachedGet(String endpoint, String path, Long userId,
+                                               @Nullable Map<String, Object> parameters) {
+        if (cache == null) {
+            return coalescedGet(endpoint, path, userId, parameters, null);
+        }
+
+        return cache.get(path, userId, parameters, eTag -> coalescedGet(endpoint, path, userId, parameters, eTag));
+    }
+
+    /**
+     * GET-запрос, который не уходит на сервер, если такой же запрос уже выполняется, а ждет его ответа.
+     * Запрос, начатый до очистки кеша, не объединяется с запросами, начатыми после нее
+     *
+     * @param eTag ETag ответа из кеша для условного запроса или null. If-None-Match клиента не передается,
+     *             потому что ответ делится между клиентами
+     */
+    protected ResponseEntity<Object> coalescedGet(String endpoint, String path, Long userId,
+                                                  @Nullable Map<String, Object> parameters, @Nullable String eTag) {
+        if (coalescer == null) {
+            return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, eTag);
+        }
+
+        long generation = cache == null ? 0 : cache.getGeneration();
+
+        List<Object> key = Arrays.asList(path, userId, parameters, generation, eTag);
+        Supplier<ResponseEntity<Object>> request =
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, eTag);
+
+        return policy == null
+                ? coalescer.execute(endpoint, key, request)
+                : coalescer.execute(endpoint, key, policy.getMaxCallDuration(), request);
+    }
+
+    /**
+     * Очистка кеша после записи, выполненной в обход общих методов отправки запросов
+     */
+    protected void invalidateCache() {
+        if (cache != null) {
+            cache.invalidate();
+        }
     }
 
     protected <T> ResponseEntity<Object> post(String path, T body) {
@@ -40,7 +143,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
     }
 
     protected <T> ResponseEntity<Object> put(String path, Long userId, T body) {
@@ -48,7 +151,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> put(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
     protected <T> ResponseEntity<Object> patch(String path, T body) {
@@ -64,7 +167,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null);
     }
 
     protected ResponseEntity<Object> delete(String path) {
@@ -76,26 +179,166 @@ public class BaseClient {
     }
 
     protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    /**
+     * Потоковая передача ответа сервера клиенту без разбора и накопления тела в памяти шлюза.
+     * Разрешение ограничения одновременных запросов освобождается после получения заголовков ответа,
+     * а разрыв соединения клиентом не считается ошибкой сервера
+     */
+    protected void stream(String path, Long userId, HttpServletResponse response) throws IOException {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+        Function<Runnable, Void> call = releasePermit -> rest.execute(path, HttpMethod.GET,
+                request -> request.getHeaders().addAll(headers),
+                serverResponse -> {
+                    releasePermit.run();
+                    response.setStatus(serverResponse.getRawStatusCode());
+                    MediaType contentType = serverResponse.getHeaders().getContentType();
+                    if (contentType != null) {
+                        response.setContentType(contentType.toString());
+                    }
+                    copy(serverResponse.getBody(), response.getOutputStream());
+                    return null;
+                });
 
-        ResponseEntity<Object> shareitServerResponse;
+        try {
+            if (policy == null) {
+                call.apply(() -> {
+                });
+            } else {
+                policy.executeStreaming(HttpMethod.GET, path, call);
+            }
+        } catch (ClientWriteException e) {
+            throw e.getCause();
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getRawStatusCode());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        } catch (CallNotPermittedException e) {
+            writeError(response, notPermitted(e));
+        } catch (ResourceAccessException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+
+            writeError(response, serverUnavailable(path, e));
+        }
+    }
+
+    /**
+     * Копирование тела ответа сервера клиенту. Ошибки записи клиенту отделяются от ошибок чтения ответа сервера
+     */
+    private static void copy(InputStream serverBody, OutputStream clientBody) throws IOException {
+        byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+        int read;
+
+        while ((read = serverBody.read(buffer)) != -1) {
+            try {
+                clientBody.write(buffer, 0, read);
+            } catch (IOException e) {
+                throw new ClientWriteException(e);
+            }
+        }
+
+        try {
+            clientBody.flush();
+        } catch (IOException e) {
+            throw new ClientWriteException(e);
+        }
+    }
+
+    /**
+     * Отправка запроса на сервер. Тело ответа передается клиенту как есть, массивом байт вместе с заголовками
+     * сервера, без разбора в дерево объектов и повторной сериализации
+     */
+    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body,
+                                                         @Nullable String ifNoneMatch) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = execute(method, path, () -> rest.exchange(path, method, requestEntity,
+                        byte[].class, parameters));
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = execute(method, path, () -> rest.exchange(path, method, requestEntity,
+                        byte[].class));
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(prepareGatewayHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
+        } catch (CallNotPermittedException e) {
+            return notPermitted(e);
+        } catch (ResourceAccessException e) {
+            return serverUnavailable(path, e);
+        }
+
+        if (method != HttpMethod.GET && shareitServerResponse.getStatusCode().is2xxSuccessful()) {
+            invalidateCache();
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    /**
+     * Выполнение запроса через политику защиты клиента, если она задана, с замером времени запроса
+     *
+     * @param path путь запроса относительно ресурса клиента, из него формируется тег uri метрики
+     */
+    protected <T> T execute(HttpMethod method, String path, Supplier<T> call) {
+        return policy == null ? call.get() : policy.execute(method, path, call);
+    }
+
+    private void writeError(HttpServletResponse response, ResponseEntity<Object> error) throws IOException {
+        response.setStatus(error.getStatusCodeValue());
+        error.getHeaders().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error.getBody());
+    }
+
+    /**
+     * Быстрый отказ без обращения к серверу
+     */
+    public static ResponseEntity<Object> notPermitted(CallNotPermittedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorResponse(e.getMessage()));
+    }
+
+    /**
+     * Ответ на ошибку соединения с сервером: 504, если сервер не ответил за время таймаута, иначе 502
+     */
+    public static ResponseEntity<Object> serverUnavailable(String path, ResourceAccessException e) {
+        boolean timeout = e.getCause() instanceof SocketTimeoutException;
+
+        log.warn("Request to server failed, path={}: {}", path, e.getMessage());
+        return ResponseEntity.status(timeout ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ErrorResponse(timeout ? "Server did not respond in time" : "Server is unavailable"));
+    }
+
+    /**
+     * Заголовок If-None-Match запроса клиента, который сейчас обрабатывает шлюз
+     */
+    @Nullable
+    private static String clientIfNoneMatch() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (attributes instanceof ServletRequestAttributes) {
+            return ((ServletRequestAttributes) attributes).getRequest().getHeader(HttpHeaders.IF_NONE_MATCH);
+        }
+
+        return null;
+    }
+
+    protected HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
@@ -105,12 +348,9 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(prepareGatewayHeaders(response.getHeaders()));
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
@@ -118,4 +358,29 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    /**
+     * Заголовки ответа сервера без заголовков, относящихся только к соединению шлюза с сервером
+     */
+    private static HttpHeaders prepareGatewayHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+
+        if (serverHeaders == null) {
+            return headers;
+        }
+
+        Set<String> connectionHeaders = serverHeaders.getConnection().stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        serverHeaders.forEach((name, values) -> {
+            String lowerCaseName = name.toLowerCase(Locale.ROOT);
+
+            if (!HOP_BY_HOP_HEADERS.contains(lowerCaseName) && !connectionHeaders.contains(lowerCaseName)) {
+                headers.addAll(name, values);
+            }
+        });
+
+        return headers;
+    }
 }
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import java.time.Duration;
+
+/**
+ * Запрос к серверу отклонен без обращения к нему: выключатель разомкнут или заняты все места
+ * для одновременных запросов клиента
+ */
+public class CallNotPermittedException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public CallNotPermittedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Время в целых секундах, через которое запрос имеет смысл повторить, для заголовка Retry-After
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, retryAfter.plusNanos(999_999_999).toSeconds());
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Автоматический выключатель по доле неудачных запросов среди последних slidingWindowSize.
+ * Разомкнутый выключатель отклоняет запросы, пока не пройдет openStateDuration, затем пропускает
+ * halfOpenCalls пробных запросов: если все они успешны, выключатель замыкается, иначе снова размыкается
+ */
+@Slf4j
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openStateNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoTime;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String name, ResilienceProperties.Client properties) {
+        this(name, properties, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, ResilienceProperties.Client properties, LongSupplier nanoTime) {
+        this.name = name;
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.minimumCalls = properties.getMinimumCalls();
+        this.openStateNanos = properties.getOpenStateDuration().toNanos();
+        this.halfOpenCalls = properties.getHalfOpenCalls();
+        this.nanoTime = nanoTime;
+        this.window = new boolean[properties.getSlidingWindowSize()];
+    }
+
+    /**
+     * Разрешение на запрос. После разрешенного запроса нужно вызвать onSuccess или onFailure
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openStateNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+
+            halfOpenPermits--;
+            return true;
+        }
+
+        return state == State.CLOSED;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses == halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+
+            if (windowCalls >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCalls) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Время до перехода разомкнутого выключателя к пробным запросам
+     */
+    public synchronized Duration getRemainingOpenDuration() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+
+        return Duration.ofNanos(Math.max(0, openStateNanos - (nanoTime.getAsLong() - openedAt)));
+    }
+
+    private void record(boolean failure) {
+        if (windowCalls == window.length) {
+            windowFailures -= window[windowIndex] ? 1 : 0;
+        } else {
+            windowCalls++;
+        }
+
+        window[windowIndex] = failure;
+        windowFailures += failure ? 1 : 0;
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void transitionTo(State newState) {
+        log.warn("Circuit breaker {} changed state from {} to {}", name, state, newState);
+
+        state = newState;
+        windowIndex = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+
+        if (newState == State.OPEN) {
+            openedAt = nanoTime.getAsLong();
+        } else if (newState == State.HALF_OPEN) {
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+    }
+}
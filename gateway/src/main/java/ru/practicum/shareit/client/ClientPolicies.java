@@ -0,0 +1,44 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Политики защиты клиентов сервера по названию клиента. Все клиенты используют общий пул соединений,
+ * но таймауты, ограничение одновременных запросов и выключатель у каждого свои, поэтому зависание
+ * одного ресурса на сервере не блокирует запросы к остальным
+ */
+@Component
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ClientPolicies {
+    private final ResilienceProperties properties;
+    private final CloseableHttpClient httpClient;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ClientPolicy> policies = new ConcurrentHashMap<>();
+
+    public ClientPolicies(ResilienceProperties properties, CloseableHttpClient shareItServerHttpClient,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.httpClient = shareItServerHttpClient;
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    public ClientPolicy get(String name) {
+        return policies.computeIfAbsent(name, this::create);
+    }
+
+    private ClientPolicy create(String name) {
+        ResilienceProperties.Client client = properties.getClient(name);
+
+        return new ClientPolicy(name, client, new HttpComponentsClientHttpRequestFactory(httpClient),
+                new CircuitBreaker(name, client), meterRegistry);
+    }
+}
@@ -0,0 +1,212 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Защита одного клиента сервера: собственные таймауты соединения и чтения, ограничение одновременных
+ * запросов, чтобы зависший сервер не занял все потоки шлюза, и автоматический выключатель.
+ * Неудачным считается запрос, завершившийся ошибкой соединения, таймаутом или ответом 5xx
+ */
+public class ClientPolicy {
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final String name;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+    private final Semaphore bulkhead;
+    private final long maxWaitForPermitNanos;
+    private final Duration maxCallDuration;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadFullRejections;
+    private final MeterRegistry meterRegistry;
+
+    ClientPolicy(String name, ResilienceProperties.Client properties, HttpComponentsClientHttpRequestFactory requestFactory,
+                 CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.requestFactory = requestFactory;
+        this.bulkhead = new Semaphore(properties.getMaxConcurrentCalls());
+        this.maxWaitForPermitNanos = properties.getMaxWaitForPermit().toNanos();
+        this.maxCallDuration = properties.getMaxWaitForPermit()
+                .plus(properties.getConnectTimeout())
+                .plus(properties.getReadTimeout());
+        this.circuitBreaker = circuitBreaker;
+        this.meterRegistry = meterRegistry;
+
+        requestFactory.setConnectTimeout((int) properties.getConnectTimeout().toMillis());
+        requestFactory.setReadTimeout((int) properties.getReadTimeout().toMillis());
+
+        circuitOpenRejections = rejections(meterRegistry, "circuit_open");
+        bulkheadFullRejections = rejections(meterRegistry, "bulkhead_full");
+        Gauge.builder("gateway.client.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("0 - closed, 1 - open, 2 - half open")
+                .tag("client", name)
+                .register(meterRegistry);
+        Gauge.builder("gateway.client.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .tag("client", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполнение запроса к серверу с замером времени в метрике gateway.client.requests. Путь в теге uri
+     * записывается без параметров и с {id} вместо идентификаторов, чтобы количество тегов не росло с данными
+     *
+     * @throws CallNotPermittedException если запрос отклонен без обращения к серверу
+     */
+    public <T> T execute(HttpMethod method, String path, Supplier<T> call) {
+        return timed(method, path, () -> execute(call));
+    }
+
+    /**
+     * Выполнение потокового запроса к серверу с замером времени, как {@link #execute(HttpMethod, String, Supplier)}
+     *
+     * @throws CallNotPermittedException если запрос отклонен без обращения к серверу
+     * @see #executeStreaming(Function)
+     */
+    public <T> T executeStreaming(HttpMethod method, String path, Function<Runnable, T> call) {
+        return timed(method, path, () -> executeStreaming(call));
+    }
+
+    /**
+     * Выполнение запроса к серверу с учетом ограничения одновременных запросов и состояния выключателя
+     *
+     * @throws CallNotPermittedException если запрос отклонен без обращения к серверу
+     */
+    public <T> T execute(Supplier<T> call) {
+        return executeStreaming(releasePermit -> call.get());
+    }
+
+    /**
+     * Выполнение потокового запроса к серверу. Запрос получает действие, освобождающее разрешение
+     * ограничения одновременных запросов, и вызывает его, как только получены заголовки ответа, чтобы долгая
+     * передача ответа клиенту не занимала разрешение. Ошибка записи ответа клиенту
+     * ({@link ClientWriteException}) не считается неудачным запросом к серверу
+     *
+     * @throws CallNotPermittedException если запрос отклонен без обращения к серверу
+     */
+    public <T> T executeStreaming(Function<Runnable, T> call) {
+        if (!acquirePermit()) {
+            bulkheadFullRejections.increment();
+            throw new CallNotPermittedException(String.format("Too many concurrent requests to %s", name),
+                    Duration.ofSeconds(1));
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable releasePermit = () -> {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        };
+
+        try {
+            if (!circuitBreaker.tryAcquire()) {
+                circuitOpenRejections.increment();
+                throw new CallNotPermittedException(String.format("Server is unavailable for %s", name),
+                        circuitBreaker.getRemainingOpenDuration());
+            }
+
+            try {
+                T result = call.apply(releasePermit);
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (HttpClientErrorException | ClientWriteException e) {
+                circuitBreaker.onSuccess();
+                throw e;
+            } catch (RuntimeException | Error e) {
+                circuitBreaker.onFailure();
+                throw e;
+            }
+        } finally {
+            releasePermit.run();
+        }
+    }
+
+    private <T> T timed(HttpMethod method, String path, Supplier<T> call) {
+        long startedAt = System.nanoTime();
+        String outcome = Outcome.UNKNOWN.name();
+
+        try {
+            T result = call.get();
+            outcome = result instanceof ResponseEntity
+                    ? Outcome.forStatus(((ResponseEntity<?>) result).getStatusCodeValue()).name()
+                    : Outcome.SUCCESS.name();
+            return result;
+        } catch (HttpStatusCodeException e) {
+            outcome = Outcome.forStatus(e.getRawStatusCode()).name();
+            throw e;
+        } catch (CallNotPermittedException e) {
+            outcome = "REJECTED";
+            throw e;
+        } catch (ResourceAccessException e) {
+            outcome = "IO_ERROR";
+            throw e;
+        } catch (ClientWriteException e) {
+            outcome = "CLIENT_DISCONNECTED";
+            throw e;
+        } finally {
+            Timer.builder("gateway.client.requests")
+                    .tag("client", name)
+                    .tag("method", method.name())
+                    .tag("uri", uriTag(path))
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public ClientHttpRequestFactory getRequestFactory() {
+        return requestFactory;
+    }
+
+    /**
+     * Время, за которое запрос клиента получает разрешение, соединение и ответ сервера или завершается ошибкой
+     */
+    public Duration getMaxCallDuration() {
+        return maxCallDuration;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    private boolean acquirePermit() {
+        try {
+            return bulkhead.tryAcquire(maxWaitForPermitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    static String uriTag(String path) {
+        int query = path.indexOf('?');
+        String uri = ID_SEGMENT.matcher(query < 0 ? path : path.substring(0, query)).replaceAll("/{id}");
+
+        return uri.isEmpty() ? "/" : uri;
+    }
+
+    private Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("gateway.client.rejected")
+                .tag("client", name)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Ошибка записи ответа сервера клиенту шлюза при потоковой передаче, например, клиент закрыл соединение.
+ * Не является ошибкой сервера и не учитывается выключателем
+ */
+class ClientWriteException extends UncheckedIOException {
+    ClientWriteException(IOException cause) {
+        super(cause);
+    }
+}
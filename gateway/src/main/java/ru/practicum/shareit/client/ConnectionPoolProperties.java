@@ -0,0 +1,52 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки общего пула соединений шлюза с сервером
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.pool")
+public class ConnectionPoolProperties {
+    /**
+     * Максимальное количество соединений в пуле
+     */
+    private int maxTotal = 200;
+
+    /**
+     * Максимальное количество одновременных соединений с одним хостом
+     */
+    private int maxPerRoute = 200;
+
+    /**
+     * Ограничения для отдельных хостов в виде host:port, переопределяющие maxPerRoute
+     */
+    private Map<String, Integer> routes = new HashMap<>();
+
+    /**
+     * Время жизни простаивающего соединения, если сервер не прислал заголовок Keep-Alive
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Простой, после которого соединение проверяется перед повторным использованием
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Время ожидания свободного соединения в пуле
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Время установки соединения с сервером
+     */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+}
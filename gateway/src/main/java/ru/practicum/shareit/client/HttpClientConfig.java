@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий HTTP-клиент для всех клиентов сервера. Соединения с сервером держатся открытыми и переиспользуются
+ * запросами из всех потоков Tomcat, а размер пула ограничивает количество одновременных запросов к серверу.
+ * Таймауты отдельных клиентов задаются в {@link ClientPolicies}
+ */
+@Configuration
+@EnableConfigurationProperties(ConnectionPoolProperties.class)
+public class HttpClientConfig {
+    @Bean
+    public PoolingHttpClientConnectionManager shareItServerConnectionManager(ConnectionPoolProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        properties.getRoutes().forEach((host, maxPerRoute) ->
+                connectionManager.setMaxPerRoute(new HttpRoute(HttpHost.create(host)), maxPerRoute));
+
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient shareItServerHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                       ConnectionPoolProperties properties) {
+        long keepAlive = properties.getKeepAlive().toMillis();
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+
+            return duration > 0 ? duration : keepAlive;
+        };
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                        .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                        .build())
+                .build();
+    }
+
+    /**
+     * Ограничение количества значений тега uri метрики запросов к серверу: пути подзапросов пакетного запроса
+     * задает клиент шлюза
+     */
+    @Bean
+    public MeterFilter shareItServerUriTagsFilter() {
+        return MeterFilter.maximumAllowableTags("gateway.client.requests", "uri", 100, MeterFilter.deny());
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одинаковых одновременных запросов к серверу: пока запрос выполняется,
+ * такие же запросы из других потоков не уходят на сервер, а ждут и получают его ответ.
+ * Счетчик gateway.coalescing.requests с тегом result=leader считает запросы, ушедшие на сервер,
+ * с тегом result=follower - полученные из чужого запроса. Запрос, который ждет чужой ответ, ждет не дольше
+ * таймаутов клиента, а ошибка любого вида завершает ожидание всех, кто ждет ответа
+ */
+@Component
+@EnableConfigurationProperties(RequestCoalescingProperties.class)
+public class RequestCoalescer {
+    private final RequestCoalescingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> leaders = new ConcurrentHashMap<>();
+    private final Map<String, Counter> followers = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(RequestCoalescingProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+    }
+
+    /**
+     * Выполнение запроса или ожидание уже выполняющегося запроса с тем же ключом не дольше
+     * shareit-server.coalescing.max-wait
+     *
+     * @param endpoint название эндпоинта, для которого объединение должно быть включено в настройках
+     * @param key      все, от чего зависит ответ сервера
+     */
+    public <T> T execute(String endpoint, List<Object> key, Supplier<T> request) {
+        return execute(endpoint, key, properties.getMaxWait(), request);
+    }
+
+    /**
+     * Выполнение запроса или ожидание уже выполняющегося запроса с тем же ключом
+     *
+     * @param endpoint название эндпоинта, для которого объединение должно быть включено в настройках
+     * @param key      все, от чего зависит ответ сервера
+     * @param maxWait  время, дольше которого запрос не ждет чужой ответ, обычно не меньше таймаутов клиента
+     * @throws ResourceAccessException чужой запрос не завершился за maxWait
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String endpoint, List<Object> key, Duration maxWait, Supplier<T> request) {
+        if (!properties.getEndpoints().contains(endpoint)) {
+            return request.get();
+        }
+
+        List<Object> flightKey = List.of(endpoint, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existingFlight = inFlight.putIfAbsent(flightKey, flight);
+
+        if (existingFlight != null) {
+            counter(followers, endpoint, "follower").increment();
+            return (T) await(existingFlight, maxWait);
+        }
+
+        counter(leaders, endpoint, "leader").increment();
+
+        try {
+            T response = request.get();
+            flight.complete(response);
+            return response;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> flight, Duration maxWait) {
+        try {
+            return flight.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResourceAccessException("Coalesced request did not complete in time",
+                    new SocketTimeoutException("Waited for " + maxWait));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for coalesced request");
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String endpoint, String result) {
+        return counters.computeIfAbsent(endpoint, name -> Counter.builder("gateway.coalescing.requests")
+                .tag("endpoint", name)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Настройки объединения одинаковых одновременных запросов к серверу
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.coalescing")
+public class RequestCoalescingProperties {
+    /**
+     * Эндпоинты, для которых одинаковые одновременные запросы объединяются в один запрос к серверу
+     */
+    private Set<String> endpoints = new HashSet<>();
+
+    /**
+     * Максимальное время ожидания чужого запроса для клиентов без собственных таймаутов
+     */
+    private Duration maxWait = Duration.ofSeconds(30);
+}
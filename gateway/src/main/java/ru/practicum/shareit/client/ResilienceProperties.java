@@ -0,0 +1,77 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки таймаутов, ограничения одновременных запросов и автоматического выключателя
+ * для каждого клиента сервера
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.resilience")
+public class ResilienceProperties {
+    /**
+     * Настройки клиентов по названию: users, items, bookings, requests.
+     * Для клиента без настроек используются значения по умолчанию
+     */
+    private Map<String, Client> clients = new HashMap<>();
+
+    public Client getClient(String name) {
+        return clients.getOrDefault(name, new Client());
+    }
+
+    @Getter
+    @Setter
+    public static class Client {
+        /**
+         * Время установки соединения с сервером
+         */
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Время ожидания данных от сервера
+         */
+        private Duration readTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Максимальное количество одновременных запросов клиента к серверу
+         */
+        private int maxConcurrentCalls = 100;
+
+        /**
+         * Время ожидания свободного места, когда все разрешенные запросы уже выполняются
+         */
+        private Duration maxWaitForPermit = Duration.ofSeconds(1);
+
+        /**
+         * Доля неудачных запросов в процентах, при которой выключатель размыкается
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * Количество последних запросов, по которым считается доля неудачных
+         */
+        private int slidingWindowSize = 20;
+
+        /**
+         * Минимальное количество запросов в окне, после которого выключатель может разомкнуться
+         */
+        private int minimumCalls = 10;
+
+        /**
+         * Время, в течение которого разомкнутый выключатель сразу отклоняет запросы
+         */
+        private Duration openStateDuration = Duration.ofSeconds(10);
+
+        /**
+         * Количество пробных запросов после размыкания, успех которых замыкает выключатель
+         */
+        private int halfOpenCalls = 3;
+    }
+}
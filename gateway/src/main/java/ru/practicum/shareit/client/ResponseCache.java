@@ -0,0 +1,185 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Кеш успешных ответов сервера на GET-запросы, разбитый на области по ресурсам.
+ * Запись через шлюз очищает области, данные которых она может изменить.
+ * Устаревший ответ с ETag не удаляется сразу, а проверяется на сервере условным запросом
+ */
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache {
+    private final ResponseCacheProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+
+    public ResponseCache(ResponseCacheProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Область кеша для клиента одного ресурса
+     *
+     * @param name              название области
+     * @param invalidatedRegions области, которые очищаются при записи через клиент, кроме самой области
+     */
+    public Region region(String name, String... invalidatedRegions) {
+        Region region = getRegion(name);
+
+        region.invalidatedRegions = List.of(invalidatedRegions);
+        return region;
+    }
+
+    private Region getRegion(String name) {
+        return regions.computeIfAbsent(name, Region::new);
+    }
+
+    /**
+     * Область кеша. Ответ сохраняется, только если за время запроса к серверу область не очищалась,
+     * иначе запрос, начатый до записи, мог бы вернуть в кеш устаревшие данные
+     */
+    public final class Region {
+        private final String name;
+        private final Cache<Key, Entry> cache;
+        private final AtomicLong generation = new AtomicLong();
+
+        private volatile List<String> invalidatedRegions = List.of();
+
+        private Region(String name) {
+            this.name = name;
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(properties.getMaxSize())
+                    .expireAfter(new EntryExpiry())
+                    .recordStats()
+                    .build();
+
+            meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "gateway." + name));
+        }
+
+        /**
+         * Получение ответа из кеша или с сервера
+         *
+         * @param request запрос к серверу, принимает ETag устаревшего ответа для условного запроса или null
+         */
+        public ResponseEntity<Object> get(String path, @Nullable Long userId, @Nullable Map<String, Object> parameters,
+                                          Function<String, ResponseEntity<Object>> request) {
+            if (!properties.isEnabled()) {
+                return request.apply(null);
+            }
+
+            Key key = new Key(path, userId, parameters);
+            Entry entry = cache.getIfPresent(key);
+
+            if (entry != null && entry.isFresh()) {
+                return entry.response;
+            }
+
+            long startGeneration = generation.get();
+            ResponseEntity<Object> response = request.apply(entry == null ? null : entry.eTag);
+
+            if (entry != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                response = entry.response;
+            }
+
+            if (response.getStatusCode().is2xxSuccessful() && generation.get() == startGeneration) {
+                cache.put(key, new Entry(response));
+            }
+
+            return response;
+        }
+
+        /**
+         * Очистка области и областей, зависящих от данных этого ресурса
+         */
+        public void invalidate() {
+            clear();
+            invalidatedRegions.forEach(region -> getRegion(region).clear());
+        }
+
+        private void clear() {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Номер очистки области, меняется при каждой записи
+         */
+        public long getGeneration() {
+            return generation.get();
+        }
+    }
+
+    /**
+     * Ответ в кеше вместе с его ETag и временем получения или последней проверки на сервере
+     */
+    private final class Entry {
+        private final ResponseEntity<Object> response;
+        @Nullable
+        private final String eTag;
+        private final long fetchedAt = System.nanoTime();
+
+        private Entry(ResponseEntity<Object> response) {
+            this.response = response;
+            this.eTag = response.getHeaders().getETag();
+        }
+
+        private boolean isFresh() {
+            return System.nanoTime() - fetchedAt < properties.getTtl().toNanos();
+        }
+    }
+
+    /**
+     * Ответ без ETag удаляется по истечении ttl. Ответ с ETag хранится дольше на время revalidate-for:
+     * после ttl он считается устаревшим, но его можно подтвердить условным запросом без передачи тела
+     */
+    private final class EntryExpiry implements Expiry<Key, Entry> {
+        @Override
+        public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+            return entry.eTag == null
+                    ? properties.getTtl().toNanos()
+                    : properties.getTtl().plus(properties.getRevalidateFor()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final String path;
+        private final Long userId;
+        private final Map<String, Object> parameters;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кеша ответов сервера в шлюзе
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+    /**
+     * Включен ли кеш
+     */
+    private boolean enabled = true;
+
+    /**
+     * Максимальное количество ответов в одной области кеша
+     */
+    private long maxSize = 10_000;
+
+    /**
+     * Время хранения ответа. Ограничивает устаревание данных, измененных в обход шлюза
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /**
+     * Время после ttl, в течение которого устаревший ответ с ETag хранится для проверки условным запросом
+     */
+    private Duration revalidateFor = Duration.ofMinutes(5);
+}
@@ -1,29 +1,48 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientPolicies;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final ParameterizedTypeReference<List<ItemImportResultDto>> IMPORT_RESULTS =
+            new ParameterizedTypeReference<>() {
+            };
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ResponseCache responseCache, RequestCoalescer requestCoalescer,
+                      ClientPolicies clientPolicies, ObjectMapper objectMapper) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> clientPolicies.get("items").getRequestFactory())
+                        .build(),
+                responseCache.region("items", "requests"),
+                requestCoalescer,
+                clientPolicies.get("items"),
+                objectMapper
         );
     }
 
@@ -31,8 +50,19 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    /**
+     * Отправка на сервер порции вещей для импорта. Результаты возвращаются в порядке переданного списка
+     */
+    public List<ItemImportResultDto> importItems(long userId, List<ItemDto> items) {
+        List<ItemImportResultDto> results = execute(HttpMethod.POST, "/bulk", () -> rest.exchange("/bulk",
+                HttpMethod.POST, new HttpEntity<>(items, defaultHeaders(userId)), IMPORT_RESULTS).getBody());
+
+        invalidateCache();
+        return results;
+    }
+
     public ResponseEntity<Object> getItemById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+        return cachedGet("items.get", "/" + itemId, userId);
     }
 
     public ResponseEntity<Object> getAllByUserId(long userId, int from, int size) {
@@ -43,6 +73,10 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
+    public void exportAllByUserId(long userId, HttpServletResponse response) throws IOException {
+        stream("/export", userId, response);
+    }
+
     public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
@@ -57,7 +91,7 @@ public class ItemClient extends BaseClient {
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return cachedGet("items.search", "/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
     public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
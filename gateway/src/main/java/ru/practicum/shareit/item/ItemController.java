@@ -2,15 +2,19 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 
 @Slf4j
 @Validated
@@ -21,6 +25,7 @@ public class ItemController {
     private static final String HEADER_USER_ID = "X-Sharer-User-Id";
 
     private final ItemClient itemClient;
+    private final ItemImporter itemImporter;
 
     @PostMapping
     public ResponseEntity<Object> createItem(@RequestHeader(HEADER_USER_ID) long userId,
@@ -29,6 +34,13 @@ public class ItemController {
         return itemClient.createItem(userId, itemDto);
     }
 
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Object> importItems(@RequestHeader(HEADER_USER_ID) long userId,
+                                              HttpServletRequest request) throws IOException {
+        log.info("Importing items, userId={}", userId);
+        return itemImporter.importItems(userId, request.getInputStream());
+    }
+
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItemById(@RequestHeader(HEADER_USER_ID) long userId, @PathVariable long itemId) {
         log.info("Get item {}, userId={}", itemId, userId);
@@ -43,6 +55,13 @@ public class ItemController {
         return itemClient.getAllByUserId(userId, from, size);
     }
 
+    @GetMapping("/export")
+    public void exportAllByUserId(@RequestHeader(HEADER_USER_ID) long userId, HttpServletResponse response)
+            throws IOException {
+        log.info("Export items, userId={}", userId);
+        itemClient.exportAllByUserId(userId, response);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(@RequestHeader(HEADER_USER_ID) long userId,
                                              @PathVariable long itemId,
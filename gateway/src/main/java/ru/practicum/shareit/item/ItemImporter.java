@@ -0,0 +1,184 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CallNotPermittedException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Импорт списка вещей из JSON-массива или NDJSON.
+ * Тело запроса читается потоковым парсером по одной вещи, корректные строки отправляются на сервер
+ * порциями, поэтому в памяти одновременно находится не больше одной порции
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemImporter {
+    static final int CHUNK_SIZE = 500;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ItemClient itemClient;
+
+    public ResponseEntity<Object> importItems(long userId, InputStream body) throws IOException {
+        List<ItemImportResultDto> results = new ArrayList<>();
+        Chunk chunk = new Chunk();
+        ResponseEntity<Object> failure = null;
+        int index = 0;
+
+        try (MappingIterator<ItemDto> rows = objectMapper.readerFor(ItemDto.class).readValues(body)) {
+            try {
+                while (failure == null && rows.hasNextValue()) {
+                    try {
+                        ItemDto itemDto = rows.nextValue();
+                        String error = validate(itemDto);
+
+                        if (error != null) {
+                            results.add(new ItemImportResultDto(index, null, error));
+                        } else {
+                            chunk.add(index, itemDto);
+                        }
+                    } catch (JsonMappingException e) {
+                        results.add(new ItemImportResultDto(index, null, e.getOriginalMessage()));
+                    }
+
+                    index++;
+
+                    if (chunk.size() == CHUNK_SIZE) {
+                        failure = send(userId, chunk, results);
+                    }
+                }
+            } catch (JsonParseException e) {
+                results.add(new ItemImportResultDto(index, null, e.getOriginalMessage()));
+            }
+
+            if (failure == null) {
+                failure = send(userId, chunk, results);
+            }
+        }
+
+        if (failure != null) {
+            return partialFailure(failure, chunk, results);
+        }
+
+        results.sort(Comparator.comparingInt(ItemImportResultDto::getIndex));
+
+        log.info("Imported items for userId={}, rows={}", userId, index);
+        return ResponseEntity.ok(results);
+    }
+
+    private String validate(ItemDto itemDto) {
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Отправка порции на сервер и перевод номеров строк порции в номера строк исходного тела запроса
+     *
+     * @return ответ об ошибке, если порцию не удалось импортировать, иначе null
+     */
+    private ResponseEntity<Object> send(long userId, Chunk chunk, List<ItemImportResultDto> results) {
+        if (chunk.size() == 0) {
+            return null;
+        }
+
+        List<ItemImportResultDto> imported;
+
+        try {
+            imported = itemClient.importItems(userId, List.copyOf(chunk.items));
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        } catch (CallNotPermittedException e) {
+            return BaseClient.notPermitted(e);
+        } catch (ResourceAccessException e) {
+            return BaseClient.serverUnavailable("/bulk", e);
+        }
+
+        for (ItemImportResultDto result : imported) {
+            result.setIndex(chunk.indexes.get(result.getIndex()));
+            results.add(result);
+        }
+
+        chunk.sent++;
+        chunk.clear();
+        return null;
+    }
+
+    /**
+     * Ответ на ошибку отправки порции. Если ни одна порция еще не импортирована, возвращается ошибка сервера.
+     * Иначе возвращаются результаты уже импортированных строк с кодом ошибки, строки неотправленной порции
+     * получают текст ошибки, а строки после нее не читаются и в ответ не попадают
+     */
+    private static ResponseEntity<Object> partialFailure(ResponseEntity<Object> failure, Chunk chunk,
+                                                         List<ItemImportResultDto> results) {
+        if (chunk.sent == 0) {
+            return failure;
+        }
+
+        String error = failure.getStatusCode() == HttpStatus.GATEWAY_TIMEOUT
+                ? "Server did not respond in time, the row may have been imported"
+                : "Row was not imported: server responded with " + failure.getStatusCodeValue();
+
+        for (int index : chunk.indexes) {
+            results.add(new ItemImportResultDto(index, null, error));
+        }
+
+        results.sort(Comparator.comparingInt(ItemImportResultDto::getIndex));
+
+        log.warn("Items import interrupted, status={}, rows={}", failure.getStatusCodeValue(), results.size());
+        return ResponseEntity.status(failure.getStatusCode()).body(results);
+    }
+
+    /**
+     * Порция прошедших проверку строк вместе с их номерами в исходном теле запроса и количество
+     * уже импортированных порций
+     */
+    private static class Chunk {
+        private final List<ItemDto> items = new ArrayList<>(CHUNK_SIZE);
+        private final List<Integer> indexes = new ArrayList<>(CHUNK_SIZE);
+        private int sent;
+
+        void add(int index, ItemDto itemDto) {
+            items.add(itemDto);
+            indexes.add(index);
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        void clear() {
+            items.clear();
+            indexes.clear();
+        }
+    }
+}
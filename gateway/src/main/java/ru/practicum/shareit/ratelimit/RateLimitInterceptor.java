@@ -0,0 +1,95 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.error.ErrorResponse;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ограничение частоты запросов для каждого пользователя из заголовка X-Sharer-User-Id и эндпоинта.
+ * Запросы без заголовка ограничиваются по адресу клиента. Превысивший ограничение запрос получает 429
+ * с заголовком Retry-After и не доходит до контроллера
+ */
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    private final RateLimitProperties properties;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TokenBucketRateLimiter.Rate> rates = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(RateLimitProperties properties, TokenBucketRateLimiter rateLimiter,
+                                ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        if (pattern == null) {
+            return true;
+        }
+
+        String userId = request.getHeader(HEADER_USER_ID);
+        long waitNanos = tryAcquire(request.getMethod(), pattern, userId != null ? userId : request.getRemoteAddr());
+
+        if (waitNanos == 0) {
+            return true;
+        }
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((waitNanos + 999_999_999) / 1_000_000_000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("Too many requests"));
+        return false;
+    }
+
+    /**
+     * Списание токена с корзины клиента для эндпоинта. Используется и для подзапросов пакетного запроса,
+     * которые списываются с корзин своих эндпоинтов, а не пакетного
+     *
+     * @param pattern шаблон пути эндпоинта, например /bookings/owner
+     * @return 0, если запрос разрешен, иначе время ожидания токена в наносекундах
+     */
+    public long tryAcquire(String method, String pattern, String client) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+
+        String endpoint = method + " " + pattern;
+        TokenBucketRateLimiter.Rate rate = rates.computeIfAbsent(pattern,
+                key -> new TokenBucketRateLimiter.Rate(properties.getLimit(key)));
+
+        long waitNanos = rateLimiter.tryAcquire(endpoint, client, rate);
+
+        if (waitNanos > 0) {
+            rejections.computeIfAbsent(endpoint, name -> Counter.builder("gateway.rate_limit.rejected")
+                            .tag("endpoint", name)
+                            .register(meterRegistry))
+                    .increment();
+            log.debug("Rate limit exceeded for client={}, endpoint={}", client, endpoint);
+        }
+
+        return waitNanos;
+    }
+}
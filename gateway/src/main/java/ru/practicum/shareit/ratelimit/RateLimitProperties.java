@@ -0,0 +1,61 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки ограничения частоты запросов к шлюзу
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+public class RateLimitProperties {
+    /**
+     * Включено ли ограничение
+     */
+    private boolean enabled = true;
+
+    /**
+     * Ограничение для эндпоинтов без собственных настроек
+     */
+    private Limit defaults = new Limit();
+
+    /**
+     * Ограничения эндпоинтов по шаблону пути контроллера, например endpoints[/bookings/owner]
+     */
+    private Map<String, Limit> endpoints = new HashMap<>();
+
+    /**
+     * Максимальное количество хранимых корзин. При превышении вытесняются давно не использованные
+     */
+    private long maxBuckets = 100_000;
+
+    /**
+     * Простой, после которого корзина удаляется. Должен быть не меньше времени полного пополнения корзины,
+     * иначе удаленная корзина вернулась бы полной раньше срока
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    public Limit getLimit(String pattern) {
+        return endpoints.getOrDefault(pattern, defaults);
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        /**
+         * Размер корзины: сколько запросов можно выполнить подряд без ожидания
+         */
+        private int capacity = 100;
+
+        /**
+         * Скорость пополнения корзины, запросов в секунду
+         */
+        private double refillPerSecond = 50;
+    }
+}
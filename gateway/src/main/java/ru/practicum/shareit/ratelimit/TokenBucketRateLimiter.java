@@ -0,0 +1,84 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничение частоты запросов корзиной токенов для каждой пары эндпоинт-клиент.
+ * Состояние корзины хранится в одном AtomicLong как теоретическое время следующего запроса (алгоритм GCRA):
+ * каждый запрос сдвигает его на интервал пополнения, и запрос разрешен, пока сдвиг относительно текущего
+ * времени не превышает capacity интервалов. Это эквивалентно корзине на capacity токенов, пополняемой
+ * со скоростью refillPerSecond, но обновляется одной операцией compareAndSet без блокировок.
+ * Корзины хранятся в кеше с вытеснением простаивающих, поэтому память ограничена
+ */
+public class TokenBucketRateLimiter {
+    private final Cache<Key, AtomicLong> buckets;
+    private final LongSupplier nanoTime;
+
+    public TokenBucketRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(RateLimitProperties properties, LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .ticker(nanoTime::getAsLong)
+                .build();
+    }
+
+    /**
+     * Попытка взять токен из корзины
+     *
+     * @return 0, если запрос разрешен, иначе время в наносекундах, через которое появится токен
+     */
+    public long tryAcquire(String endpoint, String client, Rate rate) {
+        AtomicLong bucket = buckets.get(new Key(endpoint, client), key -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long theoreticalArrival = bucket.get();
+            long nextArrival = Math.max(theoreticalArrival, now) + rate.intervalNanos;
+            long wait = nextArrival - now - rate.burstNanos;
+
+            if (wait > 0) {
+                return wait;
+            }
+
+            if (bucket.compareAndSet(theoreticalArrival, nextArrival)) {
+                return 0;
+            }
+        }
+    }
+
+    long getBucketCount() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * Ограничение в виде, удобном для вычислений: интервал пополнения одного токена и размер корзины во времени
+     */
+    public static final class Rate {
+        private final long intervalNanos;
+        private final long burstNanos;
+
+        public Rate(RateLimitProperties.Limit limit) {
+            this.intervalNanos = Math.max(1, (long) (1_000_000_000L / limit.getRefillPerSecond()));
+            this.burstNanos = intervalNanos * limit.getCapacity();
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final String endpoint;
+        private final String client;
+    }
+}
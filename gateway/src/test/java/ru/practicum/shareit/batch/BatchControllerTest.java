@@ -0,0 +1,286 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.enums.BookingState;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemImporter;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.user.UserClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(properties = {
+        "shareit-gateway.batch.timeout=1s",
+        "shareit-gateway.rate-limit.endpoints[/bookings/owner].capacity=2",
+        "shareit-gateway.rate-limit.endpoints[/bookings/owner].refill-per-second=0.1"
+})
+@Import(BatchDispatcher.class)
+class BatchControllerTest {
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    @MockBean
+    private UserClient userClient;
+    @MockBean
+    private ItemClient itemClient;
+    @MockBean
+    private BookingClient bookingClient;
+    @MockBean
+    private ItemRequestClient itemRequestClient;
+    @MockBean
+    private ItemImporter itemImporter;
+
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void testSubRequestsAreExecutedConcurrentlyAndCombinedInOrder() throws Exception {
+        CountDownLatch started = new CountDownLatch(4);
+
+        when(userClient.getUserById(1L))
+                .thenAnswer(invocation -> awaitAll(started, json("{\"id\":1}".getBytes())));
+        when(itemClient.getAllByUserId(1L, 0, 10))
+                .thenAnswer(invocation -> awaitAll(started, json("[]".getBytes())));
+        when(bookingClient.getAllByOwnerId(1L, BookingState.ALL, 0, 5, null))
+                .thenAnswer(invocation -> awaitAll(started, json("[{\"id\":2}]".getBytes())));
+        when(itemRequestClient.getItemRequestsByUserId(1L))
+                .thenAnswer(invocation -> awaitAll(started, ResponseEntity.notFound().build()));
+
+        BatchRequestDto batch = new BatchRequestDto(List.of(
+                new BatchRequestDto.SubRequest("user", "/users/1"),
+                new BatchRequestDto.SubRequest("items", "/items"),
+                new BatchRequestDto.SubRequest("bookings", "/bookings/owner?state=ALL&size=5"),
+                new BatchRequestDto.SubRequest("requests", "/requests")
+        ));
+
+        mvc.perform(post("/batch")
+                        .header(HEADER_USER_ID, 1)
+                        .content(mapper.writeValueAsString(batch))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responses[0].id", is("user")))
+                .andExpect(jsonPath("$.responses[0].status", is(200)))
+                .andExpect(jsonPath("$.responses[0].body.id", is(1)))
+                .andExpect(jsonPath("$.responses[1].status", is(200)))
+                .andExpect(jsonPath("$.responses[1].body").isEmpty())
+                .andExpect(jsonPath("$.responses[2].status", is(200)))
+                .andExpect(jsonPath("$.responses[2].body[0].id", is(2)))
+                .andExpect(jsonPath("$.responses[3].status", is(404)))
+                .andExpect(jsonPath("$.responses[3].body", nullValue()));
+    }
+
+    @Test
+    void testQueryValuesAreDecodedAndPassedToController() throws Exception {
+        when(itemClient.searchItemByText("a&b c", 0, 10))
+                .thenReturn(json("[]".getBytes()));
+
+        BatchRequestDto batch = new BatchRequestDto(List.of(
+                new BatchRequestDto.SubRequest("search", "/items/search?text=a%26b%20c")
+        ));
+
+        mvc.perform(post("/batch")
+                        .header(HEADER_USER_ID, 1)
+                        .content(mapper.writeValueAsString(batch))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responses[0].status", is(200)));
+
+        verify(itemClient).searchItemByText("a&b c", 0, 10);
+    }
+
+    @Test
+    void testSlowSubRequestTimesOutWithoutFailingOthers() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        when(userClient.getUserById(1L)).thenAnswer(invocation -> {
+            try {
+                TimeUnit.SECONDS.sleep(3);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return json("{}".getBytes());
+        });
+        when(itemClient.getItemById(1L, 2L)).thenReturn(json("{\"id\":2}".getBytes()));
+
+        BatchRequestDto batch = new BatchRequestDto(List.of(
+                new BatchRequestDto.SubRequest("slow", "/users/1"),
+                new BatchRequestDto.SubRequest("fast", "/items/2")
+        ));
+
+        mvc.perform(post("/batch")
+                        .header(HEADER_USER_ID, 1)
+                        .content(mapper.writeValueAsString(batch))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responses[0].status", is(504)))
+                .andExpect(jsonPath("$.responses[0].body.error", is("Request did not complete in time")))
+                .andExpect(jsonPath("$.responses[1].status", is(200)))
+                .andExpect(jsonPath("$.responses[1].body.id", is(2)));
+
+        assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testNonJsonBodyIsEmbeddedAsString() throws Exception {
+        when(userClient.getUserById(1L)).thenReturn(ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .contentType(MediaType.TEXT_HTML)
+                .body("<html>Bad Gateway</html>".getBytes()));
+
+        BatchRequestDto batch = new BatchRequestDto(List.of(
+                new BatchRequestDto.SubRequest("user", "/users/1")
+        ));
+
+        mvc.perform(post("/batch")
+                        .header(HEADER_USER_ID, 1)
+                        .content(mapper.writeValueAsString(batch))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responses[0].status", is(502)))
+                .andExpect(jsonPath("$.responses[0].body", is("<html>Bad Gateway</html>")));
+    }
+
+    @Test
+    void testUnknownResourceIsRejected() throws Exception {
+        BatchRequestDto batch = new BatchRequestDto(List.of(
+                new BatchRequestDto.SubRequest("admin", "/actuator/env")
+        ));
+
+        mvc.perform(post("/batch")
+                        .header(HEADER_USER_ID, 1)
+                        .content(mapper.writeValueAsString(batch))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userClient, itemClient, bookingClient, itemRequestClient);
+    }
+
+    @Test
+    void testPathOutsideOfResourceIsRejected() throws Exception {
+        BatchRequestDto batch = new BatchRequestDto(List.of(
+                new BatchRequestDto.SubRequest("admin", "/users/../actuator/queries")
+        ));
+
+        mvc.perform(post("/batch")
+                        .header(HEADER_USER_ID, 1)
+                        .content(mapper.writeValueAsString(batch))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userClient, itemClient, bookingClient, itemRequestClient);
+    }
+
+    @Test
+    void testSubRequestsAreValidatedAsDirectRequests() throws Exception {
+        BatchRequestDto batch = new BatchRequestDto(List.of(
+                new BatchRequestDto.SubRequest("size", "/bookings?size=0"),
+                new BatchRequestDto.SubRequest("from", "/bookings/owner?from=-1"),
+                new BatchRequestDto.SubRequest("state", "/bookings?state=UNSUPPORTED_STATUS"),
+                new BatchRequestDto.SubRequest("text", "/items/search"),
+                new BatchRequestDto.SubRequest("id", "/users/abc"),
+                new BatchRequestDto.SubRequest("export", "/items/export"),
+                new BatchRequestDto.SubRequest("unknown", "/users/1/items")
+        ));
+
+        mvc.perform(post("/batch")
+                        .header(HEADER_USER_ID, 2)
+                        .content(mapper.writeValueAsString(batch))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responses[0].status", is(400)))
+                .andExpect(jsonPath("$.responses[0].body.error", is("size: must be greater than 0")))
+                .andExpect(jsonPath("$.responses[1].status", is(400)))
+                .andExpect(jsonPath("$.responses[2].status", is(400)))
+                .andExpect(jsonPath("$.responses[2].body.error", is("Unknown state: UNSUPPORTED_STATUS")))
+                .andExpect(jsonPath("$.responses[3].status", is(400)))
+                .andExpect(jsonPath("$.responses[4].status", is(400)))
+                .andExpect(jsonPath("$.responses[5].status", is(404)))
+                .andExpect(jsonPath("$.responses[6].status", is(404)));
+
+        verifyNoInteractions(userClient, itemClient, bookingClient, itemRequestClient);
+    }
+
+    @Test
+    void testSubRequestsAreChargedToTheirEndpointRateLimit() throws Exception {
+        when(bookingClient.getAllByOwnerId(3L, BookingState.ALL, 0, 10, null))
+                .thenReturn(json("[]".getBytes()));
+        when(bookingClient.getAllByBookerId(3L, BookingState.ALL, 0, 10, null))
+                .thenReturn(json("[]".getBytes()));
+
+        BatchRequestDto batch = new BatchRequestDto(List.of(
+                new BatchRequestDto.SubRequest("1", "/bookings/owner"),
+                new BatchRequestDto.SubRequest("2", "/bookings/owner"),
+                new BatchRequestDto.SubRequest("3", "/bookings/owner"),
+                new BatchRequestDto.SubRequest("4", "/bookings")
+        ));
+
+        mvc.perform(post("/batch")
+                        .header(HEADER_USER_ID, 3)
+                        .content(mapper.writeValueAsString(batch))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responses[*].status", containsInAnyOrder(200, 200, 429, 200)))
+                .andExpect(jsonPath("$.responses[3].status", is(200)));
+
+        verify(bookingClient, times(2)).getAllByOwnerId(3L, BookingState.ALL, 0, 10, null);
+    }
+
+    @Test
+    void testTooManySubRequestsAreRejected() throws Exception {
+        BatchRequestDto batch = new BatchRequestDto(IntStream.rangeClosed(0, BatchRequestDto.MAX_REQUESTS)
+                .mapToObj(i -> new BatchRequestDto.SubRequest(String.valueOf(i), "/users/" + i))
+                .collect(Collectors.toList()));
+
+        mvc.perform(post("/batch")
+                        .header(HEADER_USER_ID, 1)
+                        .content(mapper.writeValueAsString(batch))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userClient);
+    }
+
+    /**
+     * Ответ подзапроса возвращается только после того, как начнутся все подзапросы пакета,
+     * поэтому тест завершится, только если подзапросы выполняются одновременно
+     */
+    private static ResponseEntity<Object> awaitAll(CountDownLatch started, ResponseEntity<?> response)
+            throws InterruptedException {
+        started.countDown();
+        started.await(5, TimeUnit.SECONDS);
+        return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).body(response.getBody());
+    }
+
+    private static ResponseEntity<Object> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.client.ClientPolicies;
+import ru.practicum.shareit.client.HttpClientConfig;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.enums.BookingState;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@RestClientTest(value = BookingClient.class, properties = "shareit-server.url=http://localhost:9090")
+@Import({HttpClientConfig.class, ClientPolicies.class, ResponseCache.class, RequestCoalescer.class})
+class BookingClientTest {
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private BookingClient bookingClient;
+    @Autowired
+    private MockRestServiceServer server;
+
+    @Test
+    void testExportAllByOwnerId() throws Exception {
+        String body = "{\"id\":1}\n{\"id\":2}";
+        server.expect(requestTo("http://localhost:9090/bookings/owner/export"))
+                .andExpect(header(HEADER_USER_ID, "1"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_NDJSON));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        bookingClient.exportAllByOwnerId(1L, response);
+
+        server.verify();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+        assertThat(response.getContentAsString()).isEqualTo(body);
+    }
+
+    @Test
+    void testExportAllByBookerIdWithUnknownUser() throws Exception {
+        String body = "{\"error\":\"Пользователь с id 99 не существует\"}";
+        server.expect(requestTo("http://localhost:9090/bookings/export"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(body));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        bookingClient.exportAllByBookerId(99L, response);
+
+        assertThat(response.getStatus()).isEqualTo(404);
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(response.getContentAsByteArray()).isEqualTo(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testGetAllByOwnerIdPassesServerResponseThrough() {
+        String body = "[{\"id\":1,\"status\":\"WAITING\"}]";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setConnection("keep-alive");
+        headers.set("Keep-Alive", "timeout=60");
+        headers.set("X-Next-Cursor", "abc");
+        server.expect(requestTo("http://localhost:9090/bookings/owner?state=ALL&from=0&size=10"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = bookingClient.getAllByOwnerId(1L, BookingState.ALL, 0, 10, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(body.getBytes(StandardCharsets.UTF_8));
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("abc");
+        assertThat(response.getHeaders()).doesNotContainKeys(HttpHeaders.CONNECTION, "Keep-Alive");
+    }
+
+    @Test
+    void testGetBookingByIdPassesServerErrorThrough() {
+        String body = "{\"error\":\"Бронирование с id 99 не существует\"}";
+        server.expect(requestTo("http://localhost:9090/bookings/99"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(body));
+
+        ResponseEntity<Object> response = bookingClient.getBookingById(1L, 99L);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isEqualTo(body.getBytes(StandardCharsets.UTF_8));
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void testGetBookingByIdForwardsIfNoneMatch() {
+        MockHttpServletRequest clientRequest = new MockHttpServletRequest();
+        clientRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(clientRequest));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v1\"");
+        server.expect(requestTo("http://localhost:9090/bookings/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(headers));
+
+        try {
+            ResponseEntity<Object> response = bookingClient.getBookingById(1L, 1L);
+
+            server.verify();
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(response.getHeaders().getETag()).isEqualTo("\"v1\"");
+            assertThat(response.hasBody()).isFalse();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
@@ -6,13 +6,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.enums.BookingState;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -69,4 +74,31 @@ class BookingControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.error", is("Unknown state: UNSUPPORTED_STATUS")));
     }
+
+    @Test
+    void testGetAllByBookerIdKeysetFirstPage() throws Exception {
+        when(bookingClient.getAllByBookerId(1L, BookingState.ALL, 0, 10, ""))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        mvc.perform(get("/bookings")
+                        .header(HEADER_USER_ID, 1)
+                        .queryParam("keyset", "true"))
+                .andExpect(status().isOk());
+
+        verify(bookingClient).getAllByBookerId(1L, BookingState.ALL, 0, 10, "");
+    }
+
+    @Test
+    void testGetAllByOwnerIdKeysetKeepsCursor() throws Exception {
+        when(bookingClient.getAllByOwnerId(1L, BookingState.ALL, 0, 10, "abc"))
+                .thenReturn(ResponseEntity.ok(List.of()));
+
+        mvc.perform(get("/bookings/owner")
+                        .header(HEADER_USER_ID, 1)
+                        .queryParam("keyset", "true")
+                        .queryParam("cursor", "abc"))
+                .andExpect(status().isOk());
+
+        verify(bookingClient).getAllByOwnerId(1L, BookingState.ALL, 0, 10, "abc");
+    }
 }
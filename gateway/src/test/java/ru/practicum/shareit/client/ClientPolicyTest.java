@@ -0,0 +1,290 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.DelegatingServletOutputStream;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.error.ErrorResponse;
+
+import javax.servlet.ServletOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Таймауты, ограничение одновременных запросов и выключатель клиента против локальной заглушки сервера
+ */
+class ClientPolicyTest {
+    private static final String ITEM = "{\"id\":1}";
+
+    private final AtomicInteger serverRequests = new AtomicInteger();
+    private final ConnectionPoolProperties poolProperties = new ConnectionPoolProperties();
+    private final ResilienceProperties resilienceProperties = new ResilienceProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private volatile long serverDelayMillis;
+    private volatile HttpStatus serverStatus = HttpStatus.OK;
+    private volatile CountDownLatch serverLatch = new CountDownLatch(0);
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/items", this::handle);
+        server.start();
+
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        httpClient = httpClientConfig.shareItServerHttpClient(
+                httpClientConfig.shareItServerConnectionManager(poolProperties), poolProperties);
+
+        ResilienceProperties.Client items = new ResilienceProperties.Client();
+        items.setReadTimeout(Duration.ofMillis(200));
+        items.setMaxConcurrentCalls(1);
+        items.setMaxWaitForPermit(Duration.ZERO);
+        items.setSlidingWindowSize(2);
+        items.setMinimumCalls(2);
+        items.setOpenStateDuration(Duration.ofMinutes(1));
+        resilienceProperties.getClients().put("items", items);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        serverLatch.countDown();
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void testReadTimeoutReturnsGatewayTimeout() {
+        TestClient client = client();
+        serverDelayMillis = 2_000;
+
+        long startedAt = System.nanoTime();
+        ResponseEntity<Object> response = client.getItem();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void testOpenCircuitFailsFastWithoutCallingServer() {
+        TestClient client = client();
+        serverStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+
+        client.getItem();
+        client.getItem();
+
+        serverStatus = HttpStatus.OK;
+        long startedAt = System.nanoTime();
+        ResponseEntity<Object> response = client.getItem();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofMillis(100));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+        assertThat(((ErrorResponse) response.getBody()).getError()).isEqualTo("Server is unavailable for items");
+        assertThat(serverRequests).hasValue(2);
+    }
+
+    @Test
+    void testClientErrorsDoNotOpenCircuit() {
+        TestClient client = client();
+        serverStatus = HttpStatus.NOT_FOUND;
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(client.getItem().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        }
+
+        assertThat(client.policy.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(serverRequests).hasValue(5);
+    }
+
+    @Test
+    void testBulkheadRejectsCallsOverLimit() throws Exception {
+        TestClient client = client();
+        serverLatch = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<Object>> first = CompletableFuture.supplyAsync(client::getItem);
+
+        while (serverRequests.get() == 0) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+
+        ResponseEntity<Object> second = client.getItem();
+        serverLatch.countDown();
+
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(serverRequests).hasValue(1);
+    }
+
+    @Test
+    void testStreamFailsFastWhenCircuitIsOpen() throws IOException {
+        TestClient client = client();
+        serverStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+
+        client.getItem();
+        client.getItem();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        client.export(response);
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getContentAsString()).isEqualTo("{\"error\":\"Server is unavailable for items\"}");
+        assertThat(serverRequests).hasValue(2);
+    }
+
+    @Test
+    void testStreamReleasesPermitWhenHeadersArrive() throws IOException {
+        TestClient client = client();
+        AtomicReference<ResponseEntity<Object>> duringCopy = new AtomicReference<>();
+        MockHttpServletResponse response = response(new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (duringCopy.get() == null) {
+                    duringCopy.set(client.getItem());
+                }
+            }
+        });
+
+        client.export(response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(duringCopy.get().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(serverRequests).hasValue(2);
+    }
+
+    @Test
+    void testClientDisconnectDoesNotOpenCircuit() {
+        TestClient client = client();
+        MockHttpServletResponse response = response(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        });
+
+        assertThatThrownBy(() -> client.export(response)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> client.export(response)).isInstanceOf(IOException.class);
+
+        assertThat(client.policy.getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(client.getItem().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void testRequestsAreTimedByUriTemplateAndOutcome() {
+        TestClient client = client();
+        serverStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+
+        client.getItem();
+        client.getItem();
+        client.getItem();
+
+        assertThat(requestTimer("SERVER_ERROR").count()).isEqualTo(2);
+        assertThat(requestTimer("REJECTED").count()).isEqualTo(1);
+        assertThat(requestTimer("SERVER_ERROR").totalTime(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+    @Test
+    void testUriTagHasNoIdsAndParameters() {
+        assertThat(ClientPolicy.uriTag("")).isEqualTo("/");
+        assertThat(ClientPolicy.uriTag("/12")).isEqualTo("/{id}");
+        assertThat(ClientPolicy.uriTag("/12/comment")).isEqualTo("/{id}/comment");
+        assertThat(ClientPolicy.uriTag("/owner?state={state}&from={from}")).isEqualTo("/owner");
+        assertThat(ClientPolicy.uriTag("/search?text=12")).isEqualTo("/search");
+        assertThat(ClientPolicy.uriTag("/item42")).isEqualTo("/item42");
+    }
+
+    private Timer requestTimer(String outcome) {
+        return meterRegistry.get("gateway.client.requests")
+                .tags("client", "items", "method", "GET", "uri", "/{id}", "outcome", outcome)
+                .timer();
+    }
+
+    private static MockHttpServletResponse response(OutputStream body) {
+        return new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new DelegatingServletOutputStream(body);
+            }
+        };
+    }
+
+    private TestClient client() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        ClientPolicies clientPolicies = new ClientPolicies(resilienceProperties, httpClient,
+                beanFactory.getBeanProvider(MeterRegistry.class));
+
+        return new TestClient("http://localhost:" + server.getAddress().getPort(), clientPolicies.get("items"));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        serverRequests.incrementAndGet();
+
+        try {
+            serverLatch.await(5, TimeUnit.SECONDS);
+            TimeUnit.MILLISECONDS.sleep(serverDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        byte[] body = ITEM.getBytes(StandardCharsets.UTF_8);
+
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(serverStatus.value(), body.length);
+            exchange.getResponseBody().write(body);
+        } catch (IOException e) {
+            // клиент уже закрыл соединение по таймауту
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static class TestClient extends BaseClient {
+        private final ClientPolicy policy;
+
+        TestClient(String serverUrl, ClientPolicy policy) {
+            super(new RestTemplateBuilder()
+                    .rootUri(serverUrl + "/items")
+                    .requestFactory(policy::getRequestFactory)
+                    .build(), null, null, policy, new ObjectMapper());
+            this.policy = policy;
+        }
+
+        ResponseEntity<Object> getItem() {
+            return get("/1", 1L);
+        }
+
+        void export(MockHttpServletResponse response) throws IOException {
+            stream("/export", 1L, response);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 2000 одновременных соединений с шлюзом: запросы к серверу идут через общий пул,
+ * поэтому к серверу открывается не больше соединений, чем разрешено пулом.
+ * Тест выполняется больше 15 секунд, поэтому запускается только в профиле slow-tests
+ */
+@Slf4j
+@Tag("slow")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-server.pool.max-total=50",
+        "shareit-server.pool.max-per-route=50",
+        "shareit-server.resilience.clients.users.max-concurrent-calls=200",
+        "shareit-server.cache.enabled=false",
+        "shareit-gateway.rate-limit.enabled=false"
+})
+class ConnectionPoolLoadTest {
+    private static final int CONNECTIONS = 2_000;
+    private static final int MAX_PER_ROUTE = 50;
+    private static final long SERVER_DELAY_MILLIS = 20;
+    private static final String USER = "{\"id\":1,\"name\":\"User\",\"email\":\"user@user.com\"}";
+
+    private static final Set<InetSocketAddress> serverConnections = ConcurrentHashMap.newKeySet();
+
+    private static HttpServer server;
+    private static ExecutorService serverExecutor;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(MAX_PER_ROUTE * 2);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), CONNECTIONS);
+        server.setExecutor(serverExecutor);
+        server.createContext("/users", exchange -> {
+            serverConnections.add(exchange.getRemoteAddress());
+
+            try {
+                Thread.sleep(SERVER_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            byte[] body = USER.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @Test
+    void testConcurrentRequestsShareConnectionPool() {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/1")).build();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(CONNECTIONS);
+
+        long startedAt = System.nanoTime();
+
+        for (int i = 0; i < CONNECTIONS; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        log.info("Обработано {} одновременных запросов за {} мс ({} запросов в секунду), соединений с сервером: {}",
+                CONNECTIONS, elapsedMillis, CONNECTIONS * 1000L / Math.max(elapsedMillis, 1),
+                serverConnections.size());
+
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.join().statusCode()).isEqualTo(200);
+            assertThat(response.join().headers().firstValue("Content-Type")).hasValue("application/json");
+            assertThat(response.join().body()).isEqualTo(USER);
+        });
+        assertThat(serverConnections).hasSizeLessThanOrEqualTo(MAX_PER_ROUTE);
+    }
+}
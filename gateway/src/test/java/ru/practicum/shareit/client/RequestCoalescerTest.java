@@ -0,0 +1,197 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+    private static final int THREADS = 8;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        RequestCoalescingProperties properties = new RequestCoalescingProperties();
+        properties.setEndpoints(Set.of("items.search"));
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+
+        coalescer = new RequestCoalescer(properties, beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testIdenticalConcurrentRequestsShareOneUpstreamCall() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            responses.add(executor.submit(() -> coalescer.execute("items.search", List.of("drill"), this::request)));
+        }
+
+        awaitFollowers("items.search", THREADS - 1);
+        release.countDown();
+
+        for (Future<Integer> response : responses) {
+            assertThat(response.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+
+        assertThat(requests).hasValue(1);
+        assertThat(count("items.search", "leader")).isEqualTo(1);
+        assertThat(count("items.search", "follower")).isEqualTo(THREADS - 1);
+    }
+
+    @Test
+    void testDifferentKeysAreNotCoalesced() {
+        release.countDown();
+
+        coalescer.execute("items.search", List.of("drill"), this::request);
+        coalescer.execute("items.search", List.of("saw"), this::request);
+
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void testEndpointWithoutOptInIsNotCoalesced() throws Exception {
+        List<Future<Integer>> responses = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            responses.add(executor.submit(() -> coalescer.execute("items.get", List.of(1L), this::request)));
+        }
+
+        while (requests.get() < 2) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        for (Future<Integer> response : responses) {
+            response.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void testFailureIsSharedAndNotRemembered() throws Exception {
+        Future<Integer> leader = executor.submit(() -> coalescer.execute("items.search", List.of("drill"), () -> {
+            requests.incrementAndGet();
+            await();
+            throw new IllegalStateException("Server is down");
+        }));
+
+        while (requests.get() == 0) {
+            Thread.sleep(1);
+        }
+
+        Future<Integer> follower = executor.submit(() -> coalescer.execute("items.search", List.of("drill"),
+                this::request));
+
+        awaitFollowers("items.search", 1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(coalescer.execute("items.search", List.of("drill"), this::request)).isEqualTo(2);
+    }
+
+    @Test
+    void testErrorIsSharedWithFollowers() throws Exception {
+        Future<Integer> leader = executor.submit(() -> coalescer.execute("items.search", List.of("drill"), () -> {
+            requests.incrementAndGet();
+            await();
+            throw new OutOfMemoryError("No memory");
+        }));
+
+        while (requests.get() == 0) {
+            Thread.sleep(1);
+        }
+
+        Future<Integer> follower = executor.submit(() -> coalescer.execute("items.search", List.of("drill"),
+                this::request));
+
+        awaitFollowers("items.search", 1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(OutOfMemoryError.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(OutOfMemoryError.class);
+    }
+
+    @Test
+    void testFollowerDoesNotWaitLongerThanMaxWait() throws Exception {
+        Future<Integer> leader = executor.submit(() -> coalescer.execute("items.search", List.of("drill"),
+                this::request));
+
+        while (requests.get() == 0) {
+            Thread.sleep(1);
+        }
+
+        assertThatThrownBy(() -> coalescer.execute("items.search", List.of("drill"), Duration.ofMillis(50),
+                this::request))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasCauseInstanceOf(SocketTimeoutException.class);
+
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(requests).hasValue(1);
+    }
+
+    private Integer request() {
+        int number = requests.incrementAndGet();
+
+        await();
+        return number;
+    }
+
+    private void await() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitFollowers(String endpoint, int followers) throws InterruptedException {
+        while (count(endpoint, "follower") < followers) {
+            Thread.sleep(1);
+        }
+    }
+
+    private double count(String endpoint, String result) {
+        return meterRegistry.find("gateway.coalescing.requests")
+                .tag("endpoint", endpoint)
+                .tag("result", result)
+                .counters()
+                .stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+}
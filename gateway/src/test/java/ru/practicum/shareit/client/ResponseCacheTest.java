@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private ResponseCache.Region items;
+    private ResponseCache.Region bookings;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCache responseCache = new ResponseCache(new ResponseCacheProperties(),
+                new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class));
+
+        items = responseCache.region("items", "requests");
+        bookings = responseCache.region("bookings", "items");
+    }
+
+    @Test
+    void testKeyIncludesUserAndParameters() {
+        items.get("/1", 1L, null, this::request);
+        items.get("/1", 1L, null, this::request);
+        items.get("/1", 2L, null, this::request);
+        items.get("/search", null, Map.of("text", "drill"), this::request);
+        items.get("/search", null, Map.of("text", "drill"), this::request);
+        items.get("/search", null, Map.of("text", "saw"), this::request);
+
+        assertThat(requests).hasValue(4);
+    }
+
+    @Test
+    void testWriteInvalidatesDependentRegion() {
+        items.get("/1", 1L, null, this::request);
+        bookings.invalidate();
+        items.get("/1", 1L, null, this::request);
+
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void testResponseStartedBeforeWriteIsNotCached() {
+        items.get("/1", 1L, null, eTag -> {
+            items.invalidate();
+            return request(eTag);
+        });
+        items.get("/1", 1L, null, this::request);
+
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void testStaleResponseWithETagIsRevalidated() {
+        ResponseCache.Region region = staleRegion();
+        List<String> eTags = new ArrayList<>();
+
+        ResponseEntity<Object> first = region.get("/1", 1L, null, eTag -> {
+            eTags.add(eTag);
+            return ResponseEntity.ok().eTag("v1").body(new byte[]{1});
+        });
+        ResponseEntity<Object> revalidated = region.get("/1", 1L, null, eTag -> {
+            eTags.add(eTag);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("v1").build();
+        });
+        ResponseEntity<Object> changed = region.get("/1", 1L, null, eTag -> {
+            eTags.add(eTag);
+            return ResponseEntity.ok().eTag("v2").body(new byte[]{2});
+        });
+
+        assertThat(eTags).containsExactly(null, "\"v1\"", "\"v1\"");
+        assertThat(revalidated).isSameAs(first);
+        assertThat(changed.getBody()).isEqualTo(new byte[]{2});
+    }
+
+    @Test
+    void testStaleResponseWithoutETagIsRequestedAgain() {
+        ResponseCache.Region region = staleRegion();
+
+        region.get("/1", 1L, null, this::request);
+        region.get("/1", 1L, null, eTag -> {
+            assertThat(eTag).isNull();
+            return request(eTag);
+        });
+
+        assertThat(requests).hasValue(2);
+    }
+
+    /**
+     * Область, в которой любой ответ сразу считается устаревшим
+     */
+    private ResponseCache.Region staleRegion() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setTtl(Duration.ZERO);
+
+        return new ResponseCache(properties, new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class))
+                .region("items");
+    }
+
+    private ResponseEntity<Object> request(String eTag) {
+        return ResponseEntity.ok(new byte[]{(byte) requests.incrementAndGet()});
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнение выделяемой памяти при проксировании страницы бронирований: разбор ответа сервера в дерево объектов
+ * с повторной сериализацией против передачи тела ответа массивом байт
+ */
+@Slf4j
+class ResponsePassthroughAllocationTest {
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 1_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] payload;
+    private final RestTemplate rest = new RestTemplate(serverStub());
+
+    @ParameterizedTest
+    @ValueSource(ints = {20, 100, 500})
+    void testPassthroughAllocatesLessThanReserialization(int bookings) {
+        payload = bookingsPage(bookings);
+
+        long transport = allocatedBytesPerCall(() -> {
+            rest.exchange("/bookings/owner", HttpMethod.GET, null, Void.class);
+            return payload;
+        });
+        long reserialized = allocatedBytesPerCall(() -> {
+            Object body = rest.exchange("/bookings/owner", HttpMethod.GET, null, Object.class).getBody();
+
+            try {
+                return objectMapper.writeValueAsBytes(body);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }) - transport;
+        long passedThrough = allocatedBytesPerCall(() ->
+                rest.exchange("/bookings/owner", HttpMethod.GET, null, byte[].class).getBody()) - transport;
+
+        log.info("Page of {} bookings, {} bytes: transport {} B/call, reserialization {} B/call, passthrough {} B/call",
+                bookings, payload.length, transport, reserialized, passedThrough);
+
+        assertThat(passedThrough).isLessThan(reserialized / 2);
+    }
+
+    private long allocatedBytesPerCall(Supplier<byte[]> call) {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long checksum = 0;
+
+        for (int i = 0; i < WARMUP; i++) {
+            checksum += call.get().length;
+        }
+
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            checksum += call.get().length;
+        }
+
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(checksum).isPositive();
+        return allocated / ITERATIONS;
+    }
+
+    private ClientHttpRequestFactory serverStub() {
+        return (uri, httpMethod) -> {
+            MockClientHttpRequest request = new MockClientHttpRequest(httpMethod, uri);
+            MockClientHttpResponse response = new MockClientHttpResponse(payload, HttpStatus.OK);
+
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setContentLength(payload.length);
+            request.setResponse(response);
+            return request;
+        };
+    }
+
+    /**
+     * Страница бронирований в том виде, в котором ее возвращает сервер
+     */
+    private static byte[] bookingsPage(int bookings) {
+        LocalDateTime start = LocalDateTime.of(2022, 9, 1, 12, 0);
+        StringBuilder json = new StringBuilder("[");
+
+        for (int i = 1; i <= bookings; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+
+            json.append("{\"id\":").append(i)
+                    .append(",\"start\":\"").append(start.plusDays(i))
+                    .append("\",\"end\":\"").append(start.plusDays(i + 1))
+                    .append("\",\"item\":{\"id\":").append(i)
+                    .append(",\"name\":\"Дрель ").append(i)
+                    .append("\",\"description\":\"Простая дрель для ремонта\",\"available\":true}")
+                    .append(",\"booker\":{\"id\":").append(i)
+                    .append(",\"name\":\"Пользователь ").append(i)
+                    .append("\",\"email\":\"user").append(i).append("@user.com\"}")
+                    .append(",\"status\":\"APPROVED\"}");
+        }
+
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
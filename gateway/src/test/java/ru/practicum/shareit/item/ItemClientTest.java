@@ -0,0 +1,109 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import ru.practicum.shareit.client.ClientPolicies;
+import ru.practicum.shareit.client.HttpClientConfig;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@RestClientTest(value = ItemClient.class, properties = "shareit-server.url=http://localhost:9090")
+@Import({HttpClientConfig.class, ClientPolicies.class, ResponseCache.class, RequestCoalescer.class, ItemClientTest.MeterRegistryConfiguration.class})
+class ItemClientTest {
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+    private static final String ITEM = "{\"id\":1,\"name\":\"Дрель\"}";
+
+    @Autowired
+    private ItemClient itemClient;
+    @Autowired
+    private MockRestServiceServer server;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testGetItemByIdIsCachedPerUser() {
+        server.expect(ExpectedCount.once(), requestTo("http://localhost:9090/items/1"))
+                .andExpect(header(HEADER_USER_ID, "1"))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo("http://localhost:9090/items/1"))
+                .andExpect(header(HEADER_USER_ID, "2"))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+
+        double hits = meterRegistry.get("cache.gets").tag("cache", "gateway.items").tag("result", "hit")
+                .functionCounter().count();
+
+        itemClient.getItemById(1L, 1L);
+        ResponseEntity<Object> cached = itemClient.getItemById(1L, 1L);
+        itemClient.getItemById(2L, 1L);
+
+        server.verify();
+        assertThat(cached.getBody()).isEqualTo(ITEM.getBytes(StandardCharsets.UTF_8));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "gateway.items").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    void testUpdateItemInvalidatesCache() {
+        server.expect(ExpectedCount.once(), requestTo("http://localhost:9090/items/search?text=drill&from=0&size=10"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo("http://localhost:9090/items/1"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess(ITEM, MediaType.APPLICATION_JSON));
+        server.expect(ExpectedCount.once(), requestTo("http://localhost:9090/items/search?text=drill&from=0&size=10"))
+                .andRespond(withSuccess("[" + ITEM + "]", MediaType.APPLICATION_JSON));
+
+        itemClient.searchItemByText("drill", 0, 10);
+        itemClient.searchItemByText("drill", 0, 10);
+        itemClient.updateItem(1L, 1L, new ItemDto(null, "Drill", "Drill", true, null, null,
+                null, null, List.of()));
+        ResponseEntity<Object> response = itemClient.searchItemByText("drill", 0, 10);
+
+        server.verify();
+        assertThat(response.getBody()).isEqualTo(("[" + ITEM + "]").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testErrorResponseIsNotCached() {
+        server.expect(ExpectedCount.twice(), requestTo("http://localhost:9090/items/99"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"not found\"}"));
+
+        itemClient.getItemById(1L, 99L);
+        ResponseEntity<Object> response = itemClient.getItemById(1L, 99L);
+
+        server.verify();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @TestConfiguration
+    static class MeterRegistryConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
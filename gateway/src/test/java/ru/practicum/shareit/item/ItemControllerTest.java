@@ -5,19 +5,36 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.ResourceAccessException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import(ItemImporter.class)
 class ItemControllerTest {
     private static final String HEADER_USER_ID = "X-Sharer-User-Id";
 
@@ -121,4 +138,146 @@ class ItemControllerTest {
                         .header(HEADER_USER_ID, 1))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void testImportItemsFromJsonArray() throws Exception {
+        when(itemClient.importItems(eq(1L), anyList()))
+                .thenReturn(List.of(new ItemImportResultDto(0, 10L, null), new ItemImportResultDto(1, 11L, null)));
+
+        mvc.perform(post("/items/bulk")
+                        .content("[{\"name\": \"Drill\", \"description\": \"Drill\", \"available\": true}," +
+                                " {\"name\": \"\", \"description\": \"Saw\", \"available\": true}," +
+                                " {\"name\": \"Ladder\", \"description\": \"Ladder\", \"available\": true}]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HEADER_USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").value(10))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error").value("name: must not be blank"))
+                .andExpect(jsonPath("$[2].index").value(2))
+                .andExpect(jsonPath("$[2].id").value(11));
+
+        verify(itemClient, times(1)).importItems(eq(1L), argThat(items -> items.size() == 2
+                && items.get(1).getName().equals("Ladder")));
+    }
+
+    @Test
+    void testImportItemsFromNdjsonInChunks() throws Exception {
+        StringBuilder body = new StringBuilder(
+                "{\"name\": \"Broken\", \"description\": \"\", \"available\": \"maybe\"}\n");
+
+        for (int i = 1; i <= ItemImporter.CHUNK_SIZE + 1; i++) {
+            body.append("{\"name\": \"Item").append(i)
+                    .append("\", \"description\": \"Desc\", \"available\": true}\n");
+        }
+
+        when(itemClient.importItems(eq(1L), anyList()))
+                .thenAnswer(invocation -> {
+                    List<ItemDto> items = invocation.getArgument(1);
+
+                    return IntStream.range(0, items.size())
+                            .mapToObj(i -> new ItemImportResultDto(i, (long) i, null))
+                            .collect(Collectors.toList());
+                });
+
+        mvc.perform(post("/items/bulk")
+                        .content(body.toString())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header(HEADER_USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(ItemImporter.CHUNK_SIZE + 2))
+                .andExpect(jsonPath("$[0].error").isNotEmpty())
+                .andExpect(jsonPath("$[1].id").value(0))
+                .andExpect(jsonPath("$[" + (ItemImporter.CHUNK_SIZE + 1) + "].index")
+                        .value(ItemImporter.CHUNK_SIZE + 1))
+                .andExpect(jsonPath("$[" + (ItemImporter.CHUNK_SIZE + 1) + "].id").value(0));
+
+        verify(itemClient, times(2)).importItems(eq(1L), anyList());
+    }
+
+    @Test
+    void testImportItemsReturnsPartialResultsWhenServerTimesOut() throws Exception {
+        StringBuilder body = new StringBuilder();
+
+        for (int i = 0; i < ItemImporter.CHUNK_SIZE * 2 + 1; i++) {
+            body.append("{\"name\": \"Item").append(i)
+                    .append("\", \"description\": \"Desc\", \"available\": true}\n");
+        }
+
+        when(itemClient.importItems(eq(1L), anyList()))
+                .thenAnswer(invocation -> IntStream.range(0, ItemImporter.CHUNK_SIZE)
+                        .mapToObj(i -> new ItemImportResultDto(i, (long) i, null))
+                        .collect(Collectors.toList()))
+                .thenThrow(new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out")));
+
+        mvc.perform(post("/items/bulk")
+                        .content(body.toString())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header(HEADER_USER_ID, 1))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.length()").value(ItemImporter.CHUNK_SIZE * 2))
+                .andExpect(jsonPath("$[0].id").value(0))
+                .andExpect(jsonPath("$[" + ItemImporter.CHUNK_SIZE + "].id").doesNotExist())
+                .andExpect(jsonPath("$[" + ItemImporter.CHUNK_SIZE + "].error").isNotEmpty());
+
+        verify(itemClient, times(2)).importItems(eq(1L), anyList());
+    }
+
+    @Test
+    void testImportItemsReturnsServerErrorWhenNothingWasImported() throws Exception {
+        when(itemClient.importItems(eq(1L), anyList()))
+                .thenThrow(new ResourceAccessException("I/O error", new ConnectException("Connection refused")));
+
+        mvc.perform(post("/items/bulk")
+                        .content("{\"name\": \"Drill\", \"description\": \"Drill\", \"available\": true}\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header(HEADER_USER_ID, 1))
+                .andExpect(status().isBadGateway())
+                .andExpect(jsonPath("$.error").value("Server is unavailable"));
+    }
+
+    @Test
+    void testImportItemsStopsAtMalformedJson() throws Exception {
+        when(itemClient.importItems(eq(1L), anyList()))
+                .thenReturn(List.of(new ItemImportResultDto(0, 10L, null)));
+
+        mvc.perform(post("/items/bulk")
+                        .content("{\"name\": \"Drill\", \"description\": \"Drill\", \"available\": true}\n"
+                                + "{\"name\": ")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header(HEADER_USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(10))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error").isNotEmpty());
+    }
+
+    @Test
+    void testGetItemByIdAnswersNotModifiedFromCachedETag() throws Exception {
+        when(itemClient.getItemById(1L, 1L))
+                .thenReturn(ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .eTag("v1")
+                        .body("{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+
+        mvc.perform(get("/items/1")
+                        .header(HEADER_USER_ID, 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"v1\""))
+                .andExpect(content().string(""));
+
+        mvc.perform(get("/items/1")
+                        .header(HEADER_USER_ID, 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"v0\""))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1}"));
+    }
 }
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingController;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BookingController.class, properties = {
+        "shareit-gateway.rate-limit.endpoints[/bookings/owner].capacity=2",
+        "shareit-gateway.rate-limit.endpoints[/bookings/owner].refill-per-second=0.1"
+})
+class RateLimitInterceptorTest {
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    @MockBean
+    private BookingClient bookingClient;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void testRequestsOverLimitAreRejectedPerUserAndEndpoint() throws Exception {
+        when(bookingClient.getAllByOwnerId(anyLong(), any(), anyInt(), anyInt(), any()))
+                .thenReturn(ResponseEntity.ok("[]"));
+        when(bookingClient.getAllByBookerId(anyLong(), any(), anyInt(), anyInt(), any()))
+                .thenReturn(ResponseEntity.ok("[]"));
+
+        mvc.perform(get("/bookings/owner").header(HEADER_USER_ID, 1))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/owner").header(HEADER_USER_ID, 1))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/owner").header(HEADER_USER_ID, 1))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error", is("Too many requests")));
+
+        mvc.perform(get("/bookings/owner").header(HEADER_USER_ID, 2))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings").header(HEADER_USER_ID, 1))
+                .andExpect(status().isOk());
+
+        verify(bookingClient, times(3)).getAllByOwnerId(anyLong(), any(), anyInt(), anyInt(), any());
+    }
+}
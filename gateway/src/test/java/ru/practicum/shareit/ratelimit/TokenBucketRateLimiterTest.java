@@ -0,0 +1,108 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong();
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    private TokenBucketRateLimiter.Rate rate;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(3);
+        limit.setRefillPerSecond(1);
+        rate = new TokenBucketRateLimiter.Rate(limit);
+        properties.setIdleTimeout(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void testBurstIsLimitedByCapacityAndRefilledOverTime() {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(properties, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("GET /bookings/owner", "1", rate)).isZero();
+        }
+
+        assertThat(rateLimiter.tryAcquire("GET /bookings/owner", "1", rate)).isEqualTo(SECOND);
+        assertThat(rateLimiter.tryAcquire("GET /bookings/owner", "2", rate)).isZero();
+        assertThat(rateLimiter.tryAcquire("GET /bookings", "1", rate)).isZero();
+
+        now.addAndGet(SECOND / 2);
+        assertThat(rateLimiter.tryAcquire("GET /bookings/owner", "1", rate)).isEqualTo(SECOND / 2);
+
+        now.addAndGet(SECOND / 2);
+        assertThat(rateLimiter.tryAcquire("GET /bookings/owner", "1", rate)).isZero();
+        assertThat(rateLimiter.tryAcquire("GET /bookings/owner", "1", rate)).isPositive();
+    }
+
+    @Test
+    void testIdleBucketsAreEvicted() {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(properties, now::get);
+
+        for (int client = 0; client < 100; client++) {
+            rateLimiter.tryAcquire("GET /items", String.valueOf(client), rate);
+        }
+
+        assertThat(rateLimiter.getBucketCount()).isEqualTo(100);
+
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+
+        assertThat(rateLimiter.getBucketCount()).isZero();
+    }
+
+    @Test
+    void testBucketCountIsBounded() {
+        properties.setMaxBuckets(10);
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(properties, now::get);
+
+        for (int client = 0; client < 1_000; client++) {
+            rateLimiter.tryAcquire("GET /items", String.valueOf(client), rate);
+        }
+
+        assertThat(rateLimiter.getBucketCount()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void testConcurrentRequestsTakeExactlyCapacity() throws Exception {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(properties, now::get);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Void>> threads = new ArrayList<>();
+
+        for (int thread = 0; thread < 8; thread++) {
+            threads.add(CompletableFuture.runAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                for (int i = 0; i < 1_000; i++) {
+                    if (rateLimiter.tryAcquire("GET /items", "1", rate) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        start.countDown();
+        CompletableFuture.allOf(threads.toArray(new CompletableFuture[0])).get();
+
+        assertThat(allowed).hasValue(3);
+    }
+}
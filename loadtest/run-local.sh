@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Нагрузочный тест на локальном стенде: сервер с базой H2 в памяти и шлюз запускаются из собранных jar,
+# после теста останавливаются. Аргументы передаются нагрузочному тесту, например:
+#   loadtest/run-local.sh --concurrency=32 --rate=20 --duration=2m --collections=postman/sprint4.json
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+mvn -B -q -pl server,gateway -am -DskipTests package
+mkdir -p loadtest/target
+
+java -jar server/target/shareit-server-0.0.1-SNAPSHOT.jar --spring.profiles.active=test \
+    --logging.level.org.springframework.transaction.interceptor=warn > loadtest/target/server.log 2>&1 &
+SERVER_PID=$!
+SHAREIT_SERVER_URL=http://localhost:9090 java -jar gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar \
+    --spring.profiles.active=test > loadtest/target/gateway.log 2>&1 &
+GATEWAY_PID=$!
+trap 'kill $GATEWAY_PID $SERVER_PID 2>/dev/null || true' EXIT
+
+for url in http://localhost:9090/actuator/health http://localhost:8080/actuator/health; do
+    for _ in $(seq 1 60); do
+        curl -sf "$url" > /dev/null && break
+        sleep 1
+    done
+    curl -sf "$url" > /dev/null || { echo "$url is not available" >&2; exit 1; }
+done
+
+mvn -B -q -P loadtest -pl loadtest compile exec:java \
+    -Dexec.args="--base-url=http://localhost:8080 --report=loadtest/target/loadtest-report.json $*"
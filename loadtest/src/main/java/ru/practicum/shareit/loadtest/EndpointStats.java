@@ -0,0 +1,66 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки и коды ответов одного эндпоинта. Задержки хранятся в микросекундах в HdrHistogram
+ * с точностью до трех значащих цифр
+ */
+public class EndpointStats {
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder failures = new LongAdder();
+
+    public void recordResponse(long latencyNanos, int status) {
+        recordLatency(latencyNanos);
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Запрос, на который не получен ответ: ошибка соединения или таймаут
+     */
+    public void recordFailure(long latencyNanos) {
+        recordLatency(latencyNanos);
+        failures.increment();
+    }
+
+    /**
+     * Задержка без кода ответа, например задержка старта сессии
+     */
+    public void recordLatency(long latencyNanos) {
+        latency.recordValue(Math.min(MAX_LATENCY_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(latencyNanos))));
+    }
+
+    public void reset() {
+        latency.reset();
+        statuses.clear();
+        failures.reset();
+    }
+
+    /**
+     * Копия гистограммы задержек в микросекундах
+     */
+    public Histogram getLatency() {
+        return latency.copy();
+    }
+
+    public Map<Integer, Long> getStatuses() {
+        Map<Integer, Long> counts = new TreeMap<>();
+
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Тип сущности, id которой подставляется в запросы коллекции, и ресурс, которым она создается
+ */
+public enum EntityKind {
+    USER("users"),
+    ITEM("items"),
+    BOOKING("bookings"),
+    REQUEST("requests");
+
+    private final String resource;
+
+    EntityKind(String resource) {
+        this.resource = resource;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public static Optional<EntityKind> fromResource(String resource) {
+        return Arrays.stream(values())
+                .filter(kind -> kind.resource.equals(resource))
+                .findFirst();
+    }
+}
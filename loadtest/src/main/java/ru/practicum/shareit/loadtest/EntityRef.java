@@ -0,0 +1,14 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Value;
+
+/**
+ * Ссылка коллекции на сущность. Коллекции рассчитаны на пустую базу, поэтому id в них — это номер
+ * сущности данного типа в порядке создания. При воспроизведении номер заменяется на id сущности,
+ * созданной тем же по счету запросом текущей сессии
+ */
+@Value
+public class EntityRef {
+    EntityKind kind;
+    long number;
+}
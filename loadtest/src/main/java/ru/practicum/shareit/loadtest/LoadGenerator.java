@@ -0,0 +1,122 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Запуск сессий с заданной параллельностью. Без интенсивности каждая из concurrency сессий начинается
+ * сразу после завершения предыдущей (закрытая модель). С интенсивностью новые сессии начинаются
+ * по расписанию независимо от ответов шлюза (открытая модель), а задержка старта сессии относительно
+ * расписания показывает, что параллельности не хватает для заданной интенсивности
+ */
+@Slf4j
+public class LoadGenerator {
+    private final LoadTestOptions options;
+    private final List<List<RequestTemplate>> workloads;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final String runTag = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final EndpointStats sessionStartDelay = new EndpointStats();
+    private final AtomicLong startedSessions = new AtomicLong();
+    private final AtomicLong completedSessions = new AtomicLong();
+
+    private volatile boolean stopped;
+
+    public LoadGenerator(LoadTestOptions options, List<List<RequestTemplate>> workloads, ObjectMapper objectMapper) {
+        this.options = options;
+        this.workloads = workloads;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public LoadTestReport run() throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(options.getConcurrency());
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        long warmupNanos = options.getWarmup().toNanos();
+
+        scheduler.schedule(this::reset, warmupNanos, TimeUnit.NANOSECONDS);
+
+        if (options.getRate() > 0) {
+            long periodNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / options.getRate()));
+
+            scheduler.scheduleAtFixedRate(() -> {
+                long scheduledAt = System.nanoTime();
+
+                workers.execute(() -> {
+                    sessionStartDelay.recordLatency(System.nanoTime() - scheduledAt);
+                    runSession();
+                });
+            }, 0, periodNanos, TimeUnit.NANOSECONDS);
+        } else {
+            for (int worker = 0; worker < options.getConcurrency(); worker++) {
+                workers.execute(() -> {
+                    while (!stopped) {
+                        runSession();
+                    }
+                });
+            }
+        }
+
+        TimeUnit.NANOSECONDS.sleep(warmupNanos);
+        long measuredFrom = System.nanoTime();
+        TimeUnit.NANOSECONDS.sleep(options.getDuration().toNanos());
+
+        stopped = true;
+        long measuredNanos = System.nanoTime() - measuredFrom;
+
+        scheduler.shutdownNow();
+        workers.shutdown();
+
+        if (!workers.awaitTermination(options.getRequestTimeout().toMillis() + 5_000, TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+
+        return new LoadTestReport(Map.copyOf(stats), options.getRate() > 0 ? sessionStartDelay : null,
+                measuredNanos, completedSessions.get());
+    }
+
+    private void runSession() {
+        if (stopped) {
+            return;
+        }
+
+        long number = startedSessions.incrementAndGet();
+        List<RequestTemplate> workload = workloads.get((int) (number % workloads.size()));
+        Session session = new Session(runTag + "-" + number, options.getBaseUrl(), httpClient, objectMapper,
+                options.getDelayScale(), options.getRequestTimeout(), stats);
+
+        try {
+            session.run(workload, () -> stopped);
+            completedSessions.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Session {} failed", number, e);
+        }
+    }
+
+    /**
+     * Окончание прогрева: результаты, полученные до него, не учитываются
+     */
+    private void reset() {
+        stats.values().forEach(EndpointStats::reset);
+        sessionStartDelay.reset();
+        completedSessions.set(0);
+        log.info("Warmup finished, measuring for {}", options.getDuration());
+    }
+}
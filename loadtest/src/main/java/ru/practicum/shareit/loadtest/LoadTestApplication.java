@@ -0,0 +1,42 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Нагрузочный тест шлюза, воспроизводящий сценарии коллекций Postman из каталога postman.
+ * Пример: --collections=postman/sprint3.json,postman/sprint4.json --concurrency=32 --rate=20 --duration=2m
+ */
+@Slf4j
+public class LoadTestApplication {
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        PostmanCollectionReader reader = new PostmanCollectionReader(objectMapper);
+        List<List<RequestTemplate>> workloads = new ArrayList<>();
+
+        for (Path collection : options.getCollections()) {
+            List<RequestTemplate> workload = reader.read(collection);
+
+            log.info("Loaded {} requests from {}", workload.size(), collection);
+            workloads.add(workload);
+        }
+
+        log.info("Running against {}: concurrency={}, rate={} sessions/s, warmup={}, duration={}",
+                options.getBaseUrl(), options.getConcurrency(), options.getRate(), options.getWarmup(),
+                options.getDuration());
+
+        LoadTestReport report = new LoadGenerator(options, workloads, objectMapper).run();
+
+        report.print(System.out);
+
+        if (options.getReport() != null) {
+            report.writeJson(options.getReport(), objectMapper);
+            log.info("Report written to {}", options.getReport());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Параметры запуска нагрузочного теста из аргументов вида --name=value
+ */
+@Getter
+public class LoadTestOptions {
+    private static final Pattern DURATION = Pattern.compile("(\\d+)(ms|s|m|h)");
+    private static final Set<String> NAMES = Set.of("base-url", "collections", "concurrency", "rate", "duration",
+            "warmup", "delay-scale", "request-timeout", "report");
+
+    /**
+     * Адрес шлюза
+     */
+    private final String baseUrl;
+    /**
+     * Коллекции Postman. Каждая сессия воспроизводит одну коллекцию, коллекции чередуются
+     */
+    private final List<Path> collections;
+    /**
+     * Количество одновременно выполняемых сессий
+     */
+    private final int concurrency;
+    /**
+     * Количество новых сессий в секунду. 0 — каждая из concurrency сессий начинается сразу
+     * после завершения предыдущей
+     */
+    private final double rate;
+    private final Duration duration;
+    /**
+     * Время в начале теста, результаты которого не учитываются
+     */
+    private final Duration warmup;
+    /**
+     * Множитель пауз из скриптов коллекции, 0 — выполнение без пауз
+     */
+    private final double delayScale;
+    private final Duration requestTimeout;
+    /**
+     * Файл для отчета в JSON или null
+     */
+    private final Path report;
+
+    public LoadTestOptions(String... args) {
+        Map<String, String> values = new HashMap<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+
+            if (!arg.startsWith("--") || separator < 0 || !NAMES.contains(arg.substring(2, separator))) {
+                throw new IllegalArgumentException("Unknown argument: " + arg + ", expected --name=value, one of "
+                        + NAMES);
+            }
+
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        baseUrl = values.getOrDefault("base-url", "http://localhost:8080").replaceAll("/+$", "");
+        collections = Arrays.stream(values.getOrDefault("collections", "postman/sprint4.json").split(","))
+                .map(String::trim)
+                .map(Path::of)
+                .collect(Collectors.toList());
+        concurrency = Integer.parseInt(values.getOrDefault("concurrency", "16"));
+        rate = Double.parseDouble(values.getOrDefault("rate", "0"));
+        duration = parseDuration(values.getOrDefault("duration", "60s"));
+        warmup = parseDuration(values.getOrDefault("warmup", "10s"));
+        delayScale = Double.parseDouble(values.getOrDefault("delay-scale", "1"));
+        requestTimeout = parseDuration(values.getOrDefault("request-timeout", "30s"));
+        report = values.containsKey("report") ? Path.of(values.get("report")) : null;
+
+        if (concurrency < 1 || rate < 0 || delayScale < 0) {
+            throw new IllegalArgumentException("concurrency must be positive, rate and delay-scale not negative");
+        }
+    }
+
+    static Duration parseDuration(String value) {
+        Matcher matcher = DURATION.matcher(value);
+
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid duration: " + value + ", expected e.g. 500ms, 30s, 5m");
+        }
+
+        long amount = Long.parseLong(matcher.group(1));
+
+        switch (matcher.group(2)) {
+            case "ms":
+                return Duration.ofMillis(amount);
+            case "s":
+                return Duration.ofSeconds(amount);
+            case "m":
+                return Duration.ofMinutes(amount);
+            default:
+                return Duration.ofHours(amount);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Результаты нагрузочного теста: пропускная способность и перцентили задержек по эндпоинтам и в целом
+ */
+public class LoadTestReport {
+    private static final String TOTAL = "TOTAL";
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, EndpointStats> endpoints;
+    private final EndpointStats sessionStartDelay;
+    private final double seconds;
+    private final long sessions;
+
+    /**
+     * @param sessionStartDelay задержки старта сессий относительно расписания или null для закрытой модели
+     */
+    public LoadTestReport(Map<String, EndpointStats> endpoints, EndpointStats sessionStartDelay, long measuredNanos,
+                          long sessions) {
+        this.endpoints = new TreeMap<>(endpoints);
+        this.sessionStartDelay = sessionStartDelay;
+        this.seconds = measuredNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        this.sessions = sessions;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("Measured %.1f s, completed sessions: %d%n%n", seconds, sessions);
+        out.printf("%-36s %9s %9s %9s %9s %9s %9s %9s %7s %7s %7s %7s%n", "Endpoint", "Requests", "Req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "2xx", "4xx", "5xx", "failed");
+
+        Map<String, Object> total = null;
+
+        for (Map<String, Object> row : rows()) {
+            if (TOTAL.equals(row.get("endpoint"))) {
+                total = row;
+            } else {
+                print(out, row);
+            }
+        }
+
+        if (total != null) {
+            print(out, total);
+        }
+
+        if (sessionStartDelay != null) {
+            Histogram delay = sessionStartDelay.getLatency();
+            out.printf("%nSession start delay: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                    millis(delay.getValueAtPercentile(50)), millis(delay.getValueAtPercentile(99)),
+                    millis(delay.getMaxValue()));
+        }
+    }
+
+    public void writeJson(Path path, ObjectMapper objectMapper) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+
+        report.put("seconds", seconds);
+        report.put("sessions", sessions);
+        report.put("endpoints", rows());
+
+        if (sessionStartDelay != null) {
+            report.put("sessionStartDelayMs", latency(sessionStartDelay.getLatency()));
+        }
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+    }
+
+    /**
+     * Строки отчета по эндпоинтам и итоговая строка по всем запросам
+     */
+    List<Map<String, Object>> rows() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Histogram totalLatency = null;
+        Map<Integer, Long> totalStatuses = new TreeMap<>();
+        long totalFailures = 0;
+
+        for (Map.Entry<String, EndpointStats> endpoint : endpoints.entrySet()) {
+            Histogram latency = endpoint.getValue().getLatency();
+            Map<Integer, Long> statuses = endpoint.getValue().getStatuses();
+            long failures = endpoint.getValue().getFailures();
+
+            if (latency.getTotalCount() == 0) {
+                continue;
+            }
+
+            rows.add(row(endpoint.getKey(), latency, statuses, failures));
+
+            if (totalLatency == null) {
+                totalLatency = latency.copy();
+            } else {
+                totalLatency.add(latency);
+            }
+
+            statuses.forEach((status, count) -> totalStatuses.merge(status, count, Long::sum));
+            totalFailures += failures;
+        }
+
+        if (totalLatency != null) {
+            rows.add(row(TOTAL, totalLatency, totalStatuses, totalFailures));
+        }
+
+        return rows;
+    }
+
+    private Map<String, Object> row(String endpoint, Histogram latency, Map<Integer, Long> statuses, long failures) {
+        Map<String, Object> row = new LinkedHashMap<>();
+
+        row.put("endpoint", endpoint);
+        row.put("requests", latency.getTotalCount());
+        row.put("throughput", seconds > 0 ? latency.getTotalCount() / seconds : 0);
+        row.put("latencyMs", latency(latency));
+        row.put("statuses", statuses);
+        row.put("failures", failures);
+        return row;
+    }
+
+    private static Map<String, Double> latency(Histogram histogram) {
+        Map<String, Double> latency = new LinkedHashMap<>();
+
+        latency.put("mean", histogram.getMean() / 1_000);
+
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + String.valueOf(percentile).replace(".0", "").replace(".", ""),
+                    millis(histogram.getValueAtPercentile(percentile)));
+        }
+
+        latency.put("max", millis(histogram.getMaxValue()));
+        return latency;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(PrintStream out, Map<String, Object> row) {
+        Map<String, Double> latency = (Map<String, Double>) row.get("latencyMs");
+        Map<Integer, Long> statuses = (Map<Integer, Long>) row.get("statuses");
+        long[] classes = new long[6];
+
+        statuses.forEach((status, count) -> classes[Math.min(5, status / 100)] += count);
+
+        out.printf("%-36s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d %7d%n", row.get("endpoint"),
+                (Long) row.get("requests"), (Double) row.get("throughput"), latency.get("p50"), latency.get("p90"),
+                latency.get("p99"), latency.get("p999"), latency.get("max"), classes[2], classes[4], classes[5],
+                (Long) row.get("failures"));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
@@ -0,0 +1,224 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Чтение коллекции Postman в список шаблонов запросов в порядке выполнения.
+ * Из скриптов перед запросом поддерживаются только используемые коллекциями конструкции:
+ * вычисление дат через moment().add(...) с сохранением в окружение и пауза через setTimeout
+ */
+public class PostmanCollectionReader {
+    static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    private static final Pattern MOMENT = Pattern.compile(
+            "var\\s+(\\w+)\\s*=\\s*moment\\(\\)((?:\\s*\\.add\\(\\s*-?\\d+\\s*,\\s*'\\w+'\\s*\\))*)");
+    private static final Pattern ADD = Pattern.compile("\\.add\\(\\s*(-?\\d+)\\s*,\\s*'(\\w+)'\\s*\\)");
+    private static final Pattern SET = Pattern.compile("pm\\.environment\\.set\\(\\s*'(\\w+)'\\s*,\\s*(\\w+)\\.format");
+    private static final Pattern TIMEOUT = Pattern.compile("setTimeout\\(\\s*function\\s*\\(\\)\\s*\\{\\s*}\\s*,\\s*(\\d+)\\s*\\)");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+    private final ObjectMapper objectMapper;
+
+    public PostmanCollectionReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public List<RequestTemplate> read(Path collection) throws IOException {
+        List<RequestTemplate> templates = new ArrayList<>();
+
+        readItems(objectMapper.readTree(collection.toFile()).path("item"), templates);
+        return templates;
+    }
+
+    private void readItems(JsonNode items, List<RequestTemplate> templates) {
+        for (JsonNode item : items) {
+            if (item.has("item")) {
+                readItems(item.get("item"), templates);
+            } else if (item.has("request")) {
+                templates.add(readRequest(item));
+            }
+        }
+    }
+
+    private RequestTemplate readRequest(JsonNode item) {
+        JsonNode request = item.get("request");
+        JsonNode url = request.path("url");
+        String method = request.path("method").asText("GET").toUpperCase(Locale.ROOT);
+        Map<String, String> pathVariables = new HashMap<>();
+
+        for (JsonNode variable : url.path("variable")) {
+            pathVariables.put(variable.path("key").asText(), variable.path("value").asText());
+        }
+
+        List<Object> path = new ArrayList<>();
+        StringBuilder endpoint = new StringBuilder(method).append(' ');
+        EntityKind previousKind = null;
+
+        for (JsonNode segmentNode : url.path("path")) {
+            String segment = segmentNode.asText();
+
+            if (segment.isEmpty()) {
+                continue;
+            }
+
+            if (segment.startsWith(":")) {
+                segment = pathVariables.getOrDefault(segment.substring(1), "");
+            }
+
+            if (previousKind != null && NUMBER.matcher(segment).matches()) {
+                path.add(new EntityRef(previousKind, Long.parseLong(segment)));
+                endpoint.append("/{id}");
+                previousKind = null;
+            } else {
+                path.add(segment);
+                endpoint.append('/').append(segment);
+                previousKind = path.size() == 1 ? EntityKind.fromResource(segment).orElse(null) : null;
+            }
+        }
+
+        List<Map.Entry<String, String>> query = new ArrayList<>();
+
+        for (JsonNode parameter : url.path("query")) {
+            if (!parameter.path("disabled").asBoolean(false)) {
+                query.add(new AbstractMap.SimpleImmutableEntry<>(parameter.path("key").asText(),
+                        parameter.path("value").asText("")));
+            }
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        EntityRef sharerUser = null;
+
+        for (JsonNode header : request.path("header")) {
+            if (header.path("disabled").asBoolean(false)) {
+                continue;
+            }
+
+            String name = header.path("key").asText();
+            String value = header.path("value").asText();
+
+            if (HEADER_USER_ID.equalsIgnoreCase(name) && NUMBER.matcher(value).matches()) {
+                sharerUser = new EntityRef(EntityKind.USER, Long.parseLong(value));
+            } else {
+                headers.put(name, value);
+            }
+        }
+
+        String body = request.path("body").path("raw").asText(null);
+        Map<String, Duration> dateVariables = new HashMap<>();
+        Duration delay = Duration.ZERO;
+
+        for (JsonNode event : item.path("event")) {
+            if ("prerequest".equals(event.path("listen").asText())) {
+                String script = String.join("\n", readLines(event.path("script").path("exec")));
+                dateVariables.putAll(readDateVariables(script));
+                delay = delay.plus(readDelay(script));
+            }
+        }
+
+        Optional<EntityKind> creates = "POST".equals(method) && path.size() == 1
+                ? EntityKind.fromResource((String) path.get(0)) : Optional.empty();
+
+        return RequestTemplate.builder()
+                .name(item.path("name").asText())
+                .method(method)
+                .path(path)
+                .query(query)
+                .headers(headers)
+                .sharerUser(sharerUser)
+                .body(body == null || body.isBlank() ? null : body)
+                .dateVariables(dateVariables)
+                .delay(delay)
+                .creates(creates.orElse(null))
+                .endpoint(endpoint.length() == method.length() + 1 ? endpoint.append('/').toString()
+                        : endpoint.toString())
+                .build();
+    }
+
+    private static List<String> readLines(JsonNode exec) {
+        List<String> lines = new ArrayList<>();
+
+        if (exec.isArray()) {
+            exec.forEach(line -> lines.add(line.asText()));
+        } else if (exec.isTextual()) {
+            lines.add(exec.asText());
+        }
+
+        return lines;
+    }
+
+    /**
+     * Переменные окружения, которые скрипт устанавливает в moment() со смещением
+     */
+    static Map<String, Duration> readDateVariables(String script) {
+        Map<String, Duration> moments = new HashMap<>();
+        Matcher moment = MOMENT.matcher(script);
+
+        while (moment.find()) {
+            Duration offset = Duration.ZERO;
+            Matcher add = ADD.matcher(moment.group(2));
+
+            while (add.find()) {
+                offset = offset.plus(Long.parseLong(add.group(1)), unit(add.group(2)));
+            }
+
+            moments.put(moment.group(1), offset);
+        }
+
+        Map<String, Duration> variables = new HashMap<>();
+        Matcher set = SET.matcher(script);
+
+        while (set.find()) {
+            Duration offset = moments.get(set.group(2));
+
+            if (offset != null) {
+                variables.put(set.group(1), offset);
+            }
+        }
+
+        return variables;
+    }
+
+    static Duration readDelay(String script) {
+        Matcher timeout = TIMEOUT.matcher(script);
+        Duration delay = Duration.ZERO;
+
+        while (timeout.find()) {
+            delay = delay.plusMillis(Long.parseLong(timeout.group(1)));
+        }
+
+        return delay;
+    }
+
+    private static ChronoUnit unit(String unit) {
+        switch (unit) {
+            case "ms":
+                return ChronoUnit.MILLIS;
+            case "s":
+                return ChronoUnit.SECONDS;
+            case "m":
+                return ChronoUnit.MINUTES;
+            case "h":
+                return ChronoUnit.HOURS;
+            case "d":
+                return ChronoUnit.DAYS;
+            default:
+                throw new IllegalArgumentException("Unsupported moment unit: " + unit);
+        }
+    }
+}
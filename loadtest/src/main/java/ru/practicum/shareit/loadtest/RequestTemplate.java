@@ -0,0 +1,48 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запрос коллекции Postman в виде, пригодном для многократного воспроизведения
+ */
+@Value
+@Builder
+public class RequestTemplate {
+    String name;
+    String method;
+    /**
+     * Сегменты пути: строка или {@link EntityRef}
+     */
+    List<Object> path;
+    List<Map.Entry<String, String>> query;
+    Map<String, String> headers;
+    /**
+     * Пользователь из заголовка X-Sharer-User-Id или null
+     */
+    EntityRef sharerUser;
+    /**
+     * Тело запроса с переменными {{name}} или null
+     */
+    String body;
+    /**
+     * Переменные окружения, которые скрипт перед запросом устанавливает в текущее время со смещением
+     */
+    Map<String, Duration> dateVariables;
+    /**
+     * Пауза перед запросом из скрипта перед запросом
+     */
+    Duration delay;
+    /**
+     * Тип сущности, которую создает запрос, или null
+     */
+    EntityKind creates;
+    /**
+     * Эндпоинт для статистики: метод и путь, в котором id заменены на {id}
+     */
+    String endpoint;
+}
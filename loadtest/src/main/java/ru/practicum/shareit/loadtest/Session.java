@@ -0,0 +1,229 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Одно воспроизведение коллекции. Сессия создает собственных пользователей, вещи, бронирования и запросы,
+ * поэтому сессии не мешают друг другу и могут выполняться одновременно на одной базе:
+ * id из коллекции заменяются на id сущностей, созданных сессией, а email — на уникальные для сессии
+ */
+public class Session {
+    /**
+     * Смещение для id, которые в коллекции ссылаются на несуществующие сущности
+     */
+    static final long MISSING_ID_OFFSET = 1_000_000_000L;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{(\\w+)}}");
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host",
+            "upgrade");
+
+    private final String tag;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final double delayScale;
+    private final Duration requestTimeout;
+    private final Map<String, EndpointStats> stats;
+    private final Map<EntityKind, List<Long>> createdIds = new EnumMap<>(EntityKind.class);
+    private final Map<String, String> environment = new HashMap<>();
+
+    /**
+     * @param tag   уникальная метка сессии, добавляется к email пользователей
+     * @param stats статистика по эндпоинтам, общая для всех сессий
+     */
+    public Session(String tag, String baseUrl, HttpClient httpClient, ObjectMapper objectMapper, double delayScale,
+                   Duration requestTimeout, Map<String, EndpointStats> stats) {
+        this.tag = tag;
+        this.baseUrl = baseUrl;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.delayScale = delayScale;
+        this.requestTimeout = requestTimeout;
+        this.stats = stats;
+    }
+
+    /**
+     * Выполнение запросов коллекции по порядку, пока не выполнены все или не запрошена остановка
+     */
+    public void run(List<RequestTemplate> templates, BooleanSupplier stopped) throws InterruptedException {
+        for (RequestTemplate template : templates) {
+            if (stopped.getAsBoolean()) {
+                return;
+            }
+
+            if (!template.getDelay().isZero() && delayScale > 0) {
+                Thread.sleep((long) (template.getDelay().toMillis() * delayScale));
+            }
+
+            execute(template);
+        }
+    }
+
+    private void execute(RequestTemplate template) throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+
+        template.getDateVariables().forEach((name, offset) -> environment.put(name, now.plus(offset).format(DATE_FORMAT)));
+
+        HttpRequest request = toHttpRequest(template);
+        EndpointStats endpointStats = stats.computeIfAbsent(template.getEndpoint(), endpoint -> new EndpointStats());
+        long startedAt = System.nanoTime();
+        HttpResponse<String> response;
+
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            endpointStats.recordFailure(System.nanoTime() - startedAt);
+            return;
+        }
+
+        endpointStats.recordResponse(System.nanoTime() - startedAt, response.statusCode());
+
+        if (template.getCreates() != null && response.statusCode() / 100 == 2) {
+            long id = readId(response.body());
+
+            if (id > 0) {
+                createdIds.computeIfAbsent(template.getCreates(), kind -> new ArrayList<>()).add(id);
+            }
+        }
+    }
+
+    HttpRequest toHttpRequest(RequestTemplate template) {
+        StringBuilder uri = new StringBuilder(baseUrl);
+
+        for (Object segment : template.getPath()) {
+            uri.append('/').append(segment instanceof EntityRef ? String.valueOf(resolve((EntityRef) segment))
+                    : encode((String) segment));
+        }
+
+        char separator = '?';
+
+        for (Map.Entry<String, String> parameter : template.getQuery()) {
+            uri.append(separator).append(encode(parameter.getKey())).append('=')
+                    .append(encode(substitute(parameter.getValue())));
+            separator = '&';
+        }
+
+        String body = template.getBody() == null ? null : rewriteBody(substitute(template.getBody()));
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri.toString()))
+                .timeout(requestTimeout)
+                .method(template.getMethod(), body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+
+        template.getHeaders().forEach((name, value) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                request.header(name, substitute(value));
+            }
+        });
+
+        if (template.getSharerUser() != null) {
+            request.header(PostmanCollectionReader.HEADER_USER_ID, String.valueOf(resolve(template.getSharerUser())));
+        }
+
+        return request.build();
+    }
+
+    /**
+     * id сущности, созданной сессией под тем же номером, что и в коллекции. Ссылки на сущности, которые
+     * сессия не создавала, заменяются на заведомо несуществующие id
+     */
+    long resolve(EntityRef ref) {
+        List<Long> ids = createdIds.getOrDefault(ref.getKind(), List.of());
+
+        if (ref.getNumber() >= 1 && ref.getNumber() <= ids.size()) {
+            return ids.get((int) ref.getNumber() - 1);
+        }
+
+        return MISSING_ID_OFFSET + ref.getNumber();
+    }
+
+    private String substitute(String value) {
+        Matcher matcher = VARIABLE.matcher(value);
+        StringBuilder result = new StringBuilder();
+
+        while (matcher.find()) {
+            matcher.appendReplacement(result,
+                    Matcher.quoteReplacement(environment.getOrDefault(matcher.group(1), matcher.group())));
+        }
+
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    /**
+     * Замена id и email в теле запроса. Некорректный JSON, который коллекции отправляют намеренно,
+     * передается как есть
+     */
+    private String rewriteBody(String body) {
+        JsonNode json;
+
+        try {
+            json = objectMapper.readTree(body);
+        } catch (JsonProcessingException e) {
+            return body;
+        }
+
+        if (!(json instanceof ObjectNode)) {
+            return body;
+        }
+
+        ObjectNode object = (ObjectNode) json;
+
+        rewriteId(object, "itemId", EntityKind.ITEM);
+        rewriteId(object, "requestId", EntityKind.REQUEST);
+
+        JsonNode email = object.get("email");
+
+        if (email != null && email.isTextual() && email.asText().indexOf('@') > 0) {
+            String value = email.asText();
+            int at = value.indexOf('@');
+            object.put("email", value.substring(0, at) + "." + tag + value.substring(at));
+        }
+
+        return object.toString();
+    }
+
+    private void rewriteId(ObjectNode object, String field, EntityKind kind) {
+        JsonNode id = object.get(field);
+
+        if (id != null && id.canConvertToLong()) {
+            object.put(field, resolve(new EntityRef(kind, id.asLong())));
+        }
+    }
+
+    private long readId(String body) {
+        try {
+            return objectMapper.readTree(body).path("id").asLong(0);
+        } catch (JsonProcessingException e) {
+            return 0;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
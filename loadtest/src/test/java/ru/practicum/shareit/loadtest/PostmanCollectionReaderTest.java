@@ -0,0 +1,61 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostmanCollectionReaderTest {
+    private final PostmanCollectionReader reader = new PostmanCollectionReader(new ObjectMapper());
+
+    @Test
+    void testCollectionIsReadInExecutionOrderWithEntityRefs() throws Exception {
+        List<RequestTemplate> templates = reader.read(Path.of("../postman/sprint4.json"));
+
+        assertThat(templates).hasSize(123);
+
+        RequestTemplate createUser = templates.get(0);
+        assertThat(createUser.getEndpoint()).isEqualTo("POST /users");
+        assertThat(createUser.getCreates()).isEqualTo(EntityKind.USER);
+        assertThat(createUser.getBody()).contains("user@user.com");
+
+        RequestTemplate createBooking = templates.get(71);
+        assertThat(createBooking.getName()).isEqualTo("Booking create from user4 to item1");
+        assertThat(createBooking.getSharerUser()).isEqualTo(new EntityRef(EntityKind.USER, 4));
+        assertThat(createBooking.getHeaders()).doesNotContainKey("X-Sharer-User-Id");
+        assertThat(createBooking.getDateVariables())
+                .containsEntry("start", Duration.ofDays(1))
+                .containsEntry("end", Duration.ofDays(1).plusHours(1));
+
+        RequestTemplate getItem = templates.get(73);
+        assertThat(getItem.getEndpoint()).isEqualTo("GET /items/{id}");
+        assertThat(getItem.getPath()).containsExactly("items", new EntityRef(EntityKind.ITEM, 2));
+        assertThat(getItem.getDelay()).isEqualTo(Duration.ofSeconds(4));
+
+        RequestTemplate createComment = templates.get(86);
+        assertThat(createComment.getEndpoint()).isEqualTo("POST /items/{id}/comment");
+        assertThat(createComment.getCreates()).isNull();
+
+        RequestTemplate getRequest = templates.get(114);
+        assertThat(getRequest.getPath()).containsExactly("requests", new EntityRef(EntityKind.REQUEST, 1));
+    }
+
+    @Test
+    void testDateVariablesAreReadFromMomentScript() {
+        String script = "var moment = require('moment');\n" +
+                "var start = moment().add(-2, 'd');\n" +
+                "var end = moment().add(3, 's').add(1, 'h');\n" +
+                "pm.environment.set('start', start.format('YYYY-MM-DDTHH:mm:ss'));\n" +
+                "pm.environment.set('currentDateTime', end.format('YYYY-MM-DDTHH:mm:ss'));";
+
+        assertThat(PostmanCollectionReader.readDateVariables(script)).isEqualTo(Map.of(
+                "start", Duration.ofDays(-2),
+                "currentDateTime", Duration.ofHours(1).plusSeconds(3)
+        ));
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionTest {
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final AtomicLong nextId = new AtomicLong(500);
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+    private Session session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            received.add(exchange.getRequestMethod() + " " + exchange.getRequestURI() + " user="
+                    + exchange.getRequestHeaders().getFirst("X-Sharer-User-Id") + " " + body);
+
+            byte[] response = String.format("{\"id\":%d}", nextId.getAndIncrement()).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+
+        session = new Session("s1", "http://localhost:" + server.getAddress().getPort(),
+                HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build(), new ObjectMapper(), 0,
+                Duration.ofSeconds(5), stats);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testCollectionIdsAreReplacedWithIdsCreatedBySession() throws Exception {
+        session.run(List.of(
+                template("POST", List.of("users"), null, "{\"name\":\"user\",\"email\":\"user@user.com\"}",
+                        EntityKind.USER, "POST /users"),
+                template("POST", List.of("items"), new EntityRef(EntityKind.USER, 1),
+                        "{\"name\":\"Дрель\",\"available\":true,\"requestId\":7}", EntityKind.ITEM, "POST /items"),
+                template("POST", List.of("bookings"), new EntityRef(EntityKind.USER, 1),
+                        "{\"itemId\":1,\"start\":\"{{start}}\"}", EntityKind.BOOKING, "POST /bookings"),
+                template("GET", List.of("items", new EntityRef(EntityKind.ITEM, 1)), new EntityRef(EntityKind.USER, 2),
+                        null, null, "GET /items/{id}")
+        ), () -> false);
+
+        assertThat(received).hasSize(4);
+        assertThat(received.get(0)).isEqualTo("POST /users user=null {\"name\":\"user\",\"email\":\"user.s1@user.com\"}");
+        assertThat(received.get(1)).isEqualTo("POST /items user=500 {\"name\":\"Дрель\",\"available\":true," +
+                "\"requestId\":" + (Session.MISSING_ID_OFFSET + 7) + "}");
+        assertThat(received.get(2)).startsWith("POST /bookings user=500 {\"itemId\":501,\"start\":\"20");
+        assertThat(received.get(3)).isEqualTo("GET /items/501 user=" + (Session.MISSING_ID_OFFSET + 2) + " ");
+
+        assertThat(stats).containsOnlyKeys("POST /users", "POST /items", "POST /bookings", "GET /items/{id}");
+        assertThat(stats.get("GET /items/{id}").getStatuses()).containsEntry(200, 1L);
+        assertThat(stats.get("GET /items/{id}").getLatency().getTotalCount()).isEqualTo(1);
+    }
+
+    private static RequestTemplate template(String method, List<Object> path, EntityRef user, String body,
+                                            EntityKind creates, String endpoint) {
+        return RequestTemplate.builder()
+                .name(endpoint)
+                .method(method)
+                .path(path)
+                .query(List.of())
+                .headers(Map.of("Content-Type", "application/json"))
+                .sharerUser(user)
+                .body(body)
+                .dateVariables(Map.of("start", Duration.ofDays(1)))
+                .delay(Duration.ZERO)
+                .creates(creates)
+                .endpoint(endpoint)
+                .build();
+    }
+}
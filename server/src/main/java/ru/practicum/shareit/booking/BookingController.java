@@ -1,17 +1,25 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.dto.CreatedBookingDto;
 import ru.practicum.shareit.booking.dto.GottenBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.enums.BookingState;
 import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.exception.UserHaveNoRightsException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.ndjson.NdjsonWriter;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -22,9 +30,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BookingController {
     private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+    private static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
 
     private final BookingService bookingService;
     private final BookingMapper bookingMapper;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public CreatedBookingDto createBooking(@RequestHeader(HEADER_USER_ID) long userId,
@@ -44,32 +54,88 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public GottenBookingDto getBookingById(@RequestHeader(HEADER_USER_ID) long userId, @PathVariable long bookingId)
+    public GottenBookingDto getBookingById(@RequestHeader(HEADER_USER_ID) long userId, @PathVariable long bookingId,
+                                           WebRequest request)
             throws ObjectNotFountException, UserHaveNoRightsException {
-        return bookingMapper.toGottenBookingDto(bookingService.getBookingById(userId, bookingId));
+        return bookingService.getBookingByIdIfModified(userId, bookingId, request::checkNotModified)
+                .map(bookingMapper::toGottenBookingDto)
+                .orElse(null);
     }
 
+    /**
+     * Страница бронирований пользователя. С параметром keyset=true или с курсором страницы выбираются
+     * по курсору, курсор следующей страницы возвращается в заголовке X-Next-Cursor, иначе по смещению from
+     */
     @GetMapping
-    public Collection<GottenBookingDto> getAllByBookerId(@RequestHeader(HEADER_USER_ID) long userId,
-                                                         @RequestParam(defaultValue = "ALL") BookingState state,
-                                                         @RequestParam(defaultValue = "0") int from,
-                                                         @RequestParam(defaultValue = "10") int size)
-            throws ObjectNotFountException {
-        return bookingService.getAllByBookerId(userId, state, from, size)
-                .stream()
-                .map(bookingMapper::toGottenBookingDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<Collection<GottenBookingDto>> getAllByBookerId(@RequestHeader(HEADER_USER_ID) long userId,
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean keyset)
+            throws ObjectNotFountException, ValidationException {
+        if (cursor == null && !keyset) {
+            return ResponseEntity.ok(toGottenBookingDto(bookingService.getAllByBookerId(userId, state, from, size)));
+        }
+
+        return toPage(bookingService.getAllByBookerIdAfter(userId, state, BookingCursor.decode(cursor), size), size);
     }
 
+    /**
+     * Страница бронирований вещей владельца, режимы постраничного получения как у бронирований пользователя
+     */
     @GetMapping("/owner")
-    public Collection<GottenBookingDto> getAllByOwnerId(@RequestHeader(HEADER_USER_ID) long userId,
-                                                        @RequestParam(defaultValue = "ALL") BookingState state,
-                                                        @RequestParam(defaultValue = "0") int from,
-                                                        @RequestParam(defaultValue = "10") int size)
-            throws ObjectNotFountException {
-        return bookingService.getAllByOwnerId(userId, state, from, size)
+    public ResponseEntity<Collection<GottenBookingDto>> getAllByOwnerId(@RequestHeader(HEADER_USER_ID) long userId,
+            @RequestParam(defaultValue = "ALL") BookingState state,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean keyset)
+            throws ObjectNotFountException, ValidationException {
+        if (cursor == null && !keyset) {
+            return ResponseEntity.ok(toGottenBookingDto(bookingService.getAllByOwnerId(userId, state, from, size)));
+        }
+
+        return toPage(bookingService.getAllByOwnerIdAfter(userId, state, BookingCursor.decode(cursor), size), size);
+    }
+
+    @GetMapping("/export")
+    public void exportAllByBookerId(@RequestHeader(HEADER_USER_ID) long userId, HttpServletResponse response)
+            throws ObjectNotFountException, IOException {
+        NdjsonWriter<GottenBookingDto> writer = new NdjsonWriter<>(objectMapper, response);
+
+        bookingService.exportAllByBookerId(userId, writer);
+        writer.close();
+    }
+
+    @GetMapping("/owner/export")
+    public void exportAllByOwnerId(@RequestHeader(HEADER_USER_ID) long userId, HttpServletResponse response)
+            throws ObjectNotFountException, IOException {
+        NdjsonWriter<GottenBookingDto> writer = new NdjsonWriter<>(objectMapper, response);
+
+        bookingService.exportAllByOwnerId(userId, writer);
+        writer.close();
+    }
+
+    private Collection<GottenBookingDto> toGottenBookingDto(Collection<Booking> bookings) {
+        return bookings
                 .stream()
                 .map(bookingMapper::toGottenBookingDto)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Ответ со страницей бронирований и курсором следующей страницы, если она может существовать
+     */
+    private ResponseEntity<Collection<GottenBookingDto>> toPage(List<GottenBookingDto> bookings, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            GottenBookingDto last = bookings.get(bookings.size() - 1);
+
+            response.header(HEADER_NEXT_CURSOR, BookingCursor.of(last.getStart(), last.getId()).encode());
+        }
+
+        return response.body(bookings);
+    }
 }
@@ -1,12 +1,18 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.GottenBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.enums.BookingState;
 import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.exception.UserHaveNoRightsException;
 import ru.practicum.shareit.exception.ValidationException;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Сервис бронирования
@@ -30,6 +36,12 @@ public interface BookingService {
     Booking getBookingById(long userId, long bookingId)
             throws ObjectNotFountException, UserHaveNoRightsException;
 
+    /**
+     * Получение бронирования по id, если его ETag не совпадает с ETag клиента
+     */
+    Optional<Booking> getBookingByIdIfModified(long userId, long bookingId, Predicate<String> isNotModified)
+            throws ObjectNotFountException, UserHaveNoRightsException;
+
     /**
      * Получение всех бронирований текущего пользователя
      */
@@ -41,4 +53,28 @@ public interface BookingService {
      */
     Collection<Booking> getAllByOwnerId(long userId, BookingState state, int from, int size)
             throws ObjectNotFountException;
+
+    /**
+     * Получение страницы бронирований текущего пользователя после курсора
+     */
+    List<GottenBookingDto> getAllByBookerIdAfter(long userId, BookingState state, BookingCursor cursor,
+                                                 int size)
+            throws ObjectNotFountException;
+
+    /**
+     * Получение страницы бронирований для всех вещей текущего пользователя после курсора
+     */
+    List<GottenBookingDto> getAllByOwnerIdAfter(long userId, BookingState state, BookingCursor cursor,
+                                                int size)
+            throws ObjectNotFountException;
+
+    /**
+     * Потоковая выгрузка всех бронирований текущего пользователя
+     */
+    void exportAllByBookerId(long userId, Consumer<GottenBookingDto> consumer) throws ObjectNotFountException;
+
+    /**
+     * Потоковая выгрузка бронирований для всех вещей текущего пользователя
+     */
+    void exportAllByOwnerId(long userId, Consumer<GottenBookingDto> consumer) throws ObjectNotFountException;
 }
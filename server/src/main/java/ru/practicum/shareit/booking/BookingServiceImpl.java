@@ -2,29 +2,49 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.GottenBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.enums.BookingState;
 import ru.practicum.shareit.enums.BookingStatus;
+import ru.practicum.shareit.exception.LoggingException;
 import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.exception.UserHaveNoRightsException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.trait.ETagTrait;
 import ru.practicum.shareit.trait.PageTrait;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class BookingServiceImpl implements BookingService, PageTrait {
+@Transactional(readOnly = true)
+public class BookingServiceImpl implements BookingService, PageTrait, ETagTrait {
+    private static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final String OVERLAP_MESSAGE = "Вещь уже забронирована на указанный период";
+    private static final String PERIOD_CONSTRAINT = "ex_booking_item_period";
+
     private final UserService userService;
     private final ItemService itemService;
 
@@ -34,6 +54,7 @@ public class BookingServiceImpl implements BookingService, PageTrait {
      * Создание бронирования
      */
     @Override
+    @Transactional(rollbackFor = LoggingException.class)
     public Booking createBooking(long userId, Booking booking)
             throws ObjectNotFountException, ValidationException, UserHaveNoRightsException {
         userService.checkUserExistsById(userId);
@@ -55,19 +76,35 @@ public class BookingServiceImpl implements BookingService, PageTrait {
         if (booking.getEnd().isBefore(booking.getStart())) {
             throw new ValidationException("Нельзя указать дату конца бронирования до начала", "CreateBooking");
         }
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.getId(), ACTIVE_STATUSES,
+                booking.getEnd(), booking.getStart())) {
+            throw new ValidationException(OVERLAP_MESSAGE, "CreateBooking");
+        }
 
         booking.setBooker(new User(userId, null, null));
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
 
-        log.info("CreateBooking. Создано бронирование с id {}", booking.getId());
-        return bookingRepository.save(booking);
+        Booking bookingCreated;
+
+        try {
+            bookingCreated = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!isPeriodConstraintViolation(e)) {
+                throw e;
+            }
+            throw new ValidationException(OVERLAP_MESSAGE, "CreateBooking");
+        }
+
+        log.info("CreateBooking. Создано бронирование с id {}", bookingCreated.getId());
+        return bookingCreated;
     }
 
     /**
      * Подтверждение или отклонение запроса на бронирование
      */
     @Override
+    @Transactional(rollbackFor = LoggingException.class)
     public Booking setApproved(long userId, long bookingId, boolean approved)
             throws ValidationException, ObjectNotFountException, UserHaveNoRightsException {
         Booking booking = getBookingById(userId, bookingId);
@@ -98,10 +135,7 @@ public class BookingServiceImpl implements BookingService, PageTrait {
             throws ObjectNotFountException, UserHaveNoRightsException {
         userService.checkUserExistsById(userId);
 
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new ObjectNotFountException(
-                String.format("Бронирование с id %d не существует", bookingId),
-                "GetBookingById"
-        ));
+        Booking booking = findBookingById(bookingId);
 
         if (booking.getBooker().getId() != userId && booking.getItem().getOwner().getId() != userId) {
             throw new UserHaveNoRightsException(
@@ -113,6 +147,37 @@ public class BookingServiceImpl implements BookingService, PageTrait {
         return booking;
     }
 
+    /**
+     * Получение бронирования по id, если его ETag не совпадает с ETag клиента.
+     * ETag вычисляется по версиям бронирования, вещи и арендатора, которые попадают в ответ
+     */
+    @Override
+    public Optional<Booking> getBookingByIdIfModified(long userId, long bookingId, Predicate<String> isNotModified)
+            throws ObjectNotFountException, UserHaveNoRightsException {
+        userService.checkUserExistsById(userId);
+
+        BookingRepository.BookingVersion version = bookingRepository.findVersionById(bookingId)
+                .orElseThrow(() -> new ObjectNotFountException(
+                        String.format("Бронирование с id %d не существует", bookingId),
+                        "GetBookingByIdIfModified"
+                ));
+
+        if (version.getBookerId() != userId && version.getOwnerId() != userId) {
+            throw new UserHaveNoRightsException(
+                    String.format("Пользователь с id %d не может просматривать данную вещь", userId),
+                    "GetBookingByIdIfModified"
+            );
+        }
+
+        String eTag = getETag(bookingId, version.getVersion(), version.getItemVersion(), version.getBookerVersion());
+
+        if (isNotModified.test(eTag)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(findBookingById(bookingId));
+    }
+
     /**
      * Получение всех бронирований текущего пользователя
      */
@@ -186,4 +251,73 @@ public class BookingServiceImpl implements BookingService, PageTrait {
 
         return result;
     }
+
+    /**
+     * Получение страницы бронирований текущего пользователя после курсора
+     */
+    @Override
+    public List<GottenBookingDto> getAllByBookerIdAfter(long userId, BookingState state, BookingCursor cursor,
+                                                        int size)
+            throws ObjectNotFountException {
+        userService.checkUserExistsById(userId);
+
+        return bookingRepository.findPageByBookerId(userId, state, LocalDateTime.now(), cursor, size);
+    }
+
+    /**
+     * Получение страницы бронирований для всех вещей текущего пользователя после курсора
+     */
+    @Override
+    public List<GottenBookingDto> getAllByOwnerIdAfter(long userId, BookingState state, BookingCursor cursor,
+                                                       int size)
+            throws ObjectNotFountException {
+        userService.checkUserExistsById(userId);
+
+        return bookingRepository.findPageByItemOwnerId(userId, state, LocalDateTime.now(), cursor, size);
+    }
+
+    /**
+     * Потоковая выгрузка всех бронирований текущего пользователя.
+     * Строки читаются курсором базы сразу в DTO и не попадают в контекст персистентности
+     */
+    @Override
+    public void exportAllByBookerId(long userId, Consumer<GottenBookingDto> consumer) throws ObjectNotFountException {
+        userService.checkUserExistsById(userId);
+
+        try (Stream<GottenBookingDto> bookings = bookingRepository.streamAllByBookerId(userId)) {
+            bookings.forEach(consumer);
+        }
+    }
+
+    /**
+     * Потоковая выгрузка бронирований для всех вещей текущего пользователя
+     */
+    @Override
+    public void exportAllByOwnerId(long userId, Consumer<GottenBookingDto> consumer) throws ObjectNotFountException {
+        userService.checkUserExistsById(userId);
+
+        try (Stream<GottenBookingDto> bookings = bookingRepository.streamAllByItemOwnerId(userId)) {
+            bookings.forEach(consumer);
+        }
+    }
+
+    /**
+     * Загрузка бронирования по id без проверки прав пользователя
+     */
+    private Booking findBookingById(long bookingId) throws ObjectNotFountException {
+        return bookingRepository.findById(bookingId).orElseThrow(() -> new ObjectNotFountException(
+                String.format("Бронирование с id %d не существует", bookingId),
+                "GetBookingById"
+        ));
+    }
+
+    /**
+     * Нарушено ограничение на пересечение периодов бронирований одной вещи. Hibernate не извлекает имя
+     * ограничения-исключения PostgreSQL, поэтому оно ищется в сообщении драйвера
+     */
+    private static boolean isPeriodConstraintViolation(DataIntegrityViolationException e) {
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+
+        return message != null && message.toLowerCase(Locale.ROOT).contains(PERIOD_CONSTRAINT);
+    }
 }
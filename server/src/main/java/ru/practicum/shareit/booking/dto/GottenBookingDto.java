@@ -21,6 +21,17 @@ public class GottenBookingDto {
     private GottenBookingDto.User booker;
     private BookingStatus status;
 
+    /**
+     * Конструктор для выборки бронирования сразу в DTO, без загрузки сущностей
+     */
+    public GottenBookingDto(Long id, LocalDateTime start, LocalDateTime end,
+                            Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                            Long bookerId, String bookerName, String bookerEmail,
+                            BookingStatus status) {
+        this(id, start, end, new Item(itemId, itemName, itemDescription, Boolean.TRUE.equals(itemAvailable)),
+                new User(bookerId, bookerName, bookerEmail), status);
+    }
+
     @Data
     @AllArgsConstructor
     @NoArgsConstructor
@@ -2,9 +2,11 @@ package ru.practicum.shareit.booking.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.enums.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.model.VersionedEntity;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
@@ -15,21 +17,23 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Data
+@EqualsAndHashCode(callSuper = false)
 @Table(name = "bookings")
 @AllArgsConstructor
 @NoArgsConstructor
-public class Booking {
+public class Booking extends VersionedEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
     @Column(name = "start_date_time")
     private LocalDateTime start;
     @Column(name = "end_date_time")
     private LocalDateTime end;
-    @ManyToOne
+    @ManyToOne(optional = false)
     @JoinColumn(name = "item_id")
     private Item item;
-    @ManyToOne
+    @ManyToOne(optional = false)
     @JoinColumn(name = "booker_id")
     private User booker;
     @Enumerated(EnumType.STRING)
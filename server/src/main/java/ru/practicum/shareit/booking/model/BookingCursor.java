@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Позиция в списке бронирований, отсортированном по дате старта и id по убыванию.
+ * Передается клиенту в виде непрозрачной строки
+ */
+@Getter
+@RequiredArgsConstructor
+public class BookingCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime start;
+    private final long id;
+
+    /**
+     * Курсор, указывающий на бронирование, дата старта приводится к точности хранения в базе
+     */
+    public static BookingCursor of(LocalDateTime start, long id) {
+        return new BookingCursor(start.truncatedTo(ChronoUnit.MICROS), id);
+    }
+
+    /**
+     * Разбор курсора из строки, отсутствующий курсор или пустая строка означают начало списка
+     */
+    public static BookingCursor decode(String value) throws ValidationException {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+
+            return new BookingCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException(String.format("Некорректный курсор %s", value), "DecodeBookingCursor");
+        }
+    }
+
+    /**
+     * Представление курсора в виде строки
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
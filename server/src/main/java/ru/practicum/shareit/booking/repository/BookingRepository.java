@@ -2,51 +2,85 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.GottenBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.enums.BookingStatus;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Репозиторий бронирования
  */
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    /**
+     * Выборка бронирований вместе с вещью, ее владельцем и автором бронирования. Условия запросов ставятся
+     * на внешние ключи бронирования и вещи, а не на id присоединенных пользователей, а все соединения
+     * внутренние, чтобы база могла начать с таблицы, для которой есть индекс по условию
+     */
+    String SELECT_BOOKING = "select b from Booking b join fetch b.item i join fetch i.owner join fetch b.booker";
+
+    /**
+     * Выборка бронирований сразу в DTO вместе с вещью и автором бронирования
+     */
+    String SELECT_GOTTEN_BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.GottenBookingDto(" +
+            "b.id, b.start, b.end, i.id, i.name, i.description, i.available, u.id, u.name, u.email, b.status)" +
+            " from Booking b join b.item i join b.booker u";
+
+    /**
+     * Количество строк, которое драйвер получает из базы за одно обращение при потоковой выгрузке
+     */
+    String EXPORT_FETCH_SIZE = "500";
+
     /**
      * Получение всех бронирований пользователя отсортированных по дате старта
      */
+    @Query(SELECT_BOOKING + " where b.booker.id = ?1")
     List<Booking> findAllByBookerId(long userId, Pageable page);
 
     /**
      * Получение всех текущих бронирований пользователя отсортированных по дате старта
      */
+    @Query(SELECT_BOOKING + " where b.booker.id = ?1 and b.end > ?2 and b.start < ?3")
     List<Booking> findAllByBookerIdAndEndIsAfterAndStartIsBefore(long bookerId, LocalDateTime end, LocalDateTime start,
                                                                  Pageable page);
 
     /**
      * Получение всех бронирований пользователя из прошлого отсортированных по дате старта
      */
+    @Query(SELECT_BOOKING + " where b.booker.id = ?1 and b.end < ?2")
     List<Booking> findAllByBookerIdAndEndIsBefore(long bookerId, LocalDateTime end, Pageable page);
 
     /**
      * Получение всех бронирований пользователя из будущего отсортированных по дате старта
      */
+    @Query(SELECT_BOOKING + " where b.booker.id = ?1 and b.start > ?2")
     List<Booking> findAllByBookerIdAndStartIsAfter(long bookerId, LocalDateTime start, Pageable page);
 
     /**
      * Получение всех бронирований пользователя по статусу отсортированных по дате старта
      */
+    @Query(SELECT_BOOKING + " where b.booker.id = ?1 and b.status = ?2")
     List<Booking> findAllByBookerIdAndStatus(long bookerId, BookingStatus status, Pageable page);
 
     /**
      * Получение бронирований для всех вещей текущего пользователя отсортированных по дате старта
      */
+    @Query(SELECT_BOOKING + " where i.owner.id = ?1")
     List<Booking> findAllByItemOwnerId(long userId, Pageable page);
 
     /**
      * Получение всех текущих бронирований для всех вещей текущего пользователя отсортированных по дате старта
      */
+    @Query(SELECT_BOOKING + " where i.owner.id = ?1 and b.end > ?2 and b.start < ?3")
     List<Booking> findAllByItemOwnerIdAndEndIsAfterAndStartIsBefore(long bookerId,
                                                                     LocalDateTime end,
                                                                     LocalDateTime start,
@@ -55,16 +89,19 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     /**
      * Получение бронирований для всех вещей текущего пользователя из прошлого отсортированных по дате старта
      */
+    @Query(SELECT_BOOKING + " where i.owner.id = ?1 and b.end < ?2")
     List<Booking> findAllByItemOwnerIdAndEndIsBefore(long bookerId, LocalDateTime end, Pageable page);
 
     /**
      * Получение бронирований для всех вещей текущего пользователя из будущего отсортированных по дате старта
      */
+    @Query(SELECT_BOOKING + " where i.owner.id = ?1 and b.start > ?2")
     List<Booking> findAllByItemOwnerIdAndStartIsAfter(long bookerId, LocalDateTime start, Pageable page);
 
     /**
      * Получение бронирований для всех вещей текущего пользователя по статусу отсортированных по дате старта
      */
+    @Query(SELECT_BOOKING + " where i.owner.id = ?1 and b.status = ?2")
     List<Booking> findAllByItemOwnerIdAndStatus(long bookerId, BookingStatus status, Pageable page);
 
     /**
@@ -77,9 +114,106 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      */
     Optional<Booking> findFirstByItemIdAndStatusOrderByEndDesc(long itemId, BookingStatus status);
 
+    /**
+     * Условие выборки последнего и следующего бронирования вещей из списка ?1 в статусе ?2
+     */
+    String WHERE_LAST_AND_NEXT = " where i.id in ?1 and b.status = ?2" +
+            " and (b.end = (select min(l.end) from Booking l where l.item = b.item and l.status = ?2)" +
+            " or b.end = (select max(n.end) from Booking n where n.item = b.item and n.status = ?2))";
+
+    /**
+     * Получение последнего и следующего бронирования для набора вещей одним запросом
+     */
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker" + WHERE_LAST_AND_NEXT)
+    List<Booking> findLastAndNextByItemIdIn(Collection<Long> itemIds, BookingStatus status);
+
+    /**
+     * Получение последнего и следующего бронирования для набора вещей без загрузки сущностей
+     */
+    @Query("select b.id as id, i.id as itemId, b.booker.id as bookerId, b.start as start, b.end as end" +
+            " from Booking b join b.item i" + WHERE_LAST_AND_NEXT)
+    List<ItemBooking> findLastAndNextViewsByItemIdIn(Collection<Long> itemIds, BookingStatus status);
+
+    /**
+     * Проверка пересечения периода [start, end) с бронированиями вещи в переданных статусах
+     */
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(long itemId, Collection<BookingStatus> statuses,
+                                                              LocalDateTime end, LocalDateTime start);
+
     /**
      * Получение бронирования по вещи и пользователю
      */
     Optional<Booking> findFirstByBookerIdAndItemIdAndStatusAndStartBefore(long userId, long itemId,
                                                                           BookingStatus status, LocalDateTime now);
+
+    /**
+     * Потоковая выгрузка всех бронирований пользователя в DTO, отсортированных по дате старта и id по убыванию
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_GOTTEN_BOOKING_DTO + " where u.id = ?1 order by b.start desc, b.id desc")
+    Stream<GottenBookingDto> streamAllByBookerId(long bookerId);
+
+    /**
+     * Потоковая выгрузка всех бронирований для вещей владельца в DTO, отсортированных по дате старта и id по убыванию
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_GOTTEN_BOOKING_DTO + " where i.owner.id = ?1 order by b.start desc, b.id desc")
+    Stream<GottenBookingDto> streamAllByItemOwnerId(long ownerId);
+
+    /**
+     * Версии бронирования, вещи и арендатора без загрузки сущностей, вместе с участниками для проверки прав
+     */
+    @Query("select b.version as version, i.version as itemVersion, u.version as bookerVersion," +
+            " u.id as bookerId, i.owner.id as ownerId" +
+            " from Booking b join b.item i join b.booker u where b.id = ?1")
+    Optional<BookingVersion> findVersionById(long bookingId);
+
+    /**
+     * Количество, последний id и сумма версий бронирований вещи. Любое изменение бронирований вещи
+     * меняет хотя бы одно из значений
+     */
+    @Query("select count(b.id) as bookings, coalesce(max(b.id), 0) as lastBookingId," +
+            " coalesce(sum(b.version), 0) as bookingsVersion from Booking b where b.item.id = ?1")
+    ItemBookingsVersion findVersionByItemId(long itemId);
+
+    /**
+     * Версии данных, из которых собирается бронирование
+     */
+    interface BookingVersion {
+        Long getVersion();
+
+        Long getItemVersion();
+
+        Long getBookerVersion();
+
+        Long getBookerId();
+
+        Long getOwnerId();
+    }
+
+    /**
+     * Бронирование вещи в том виде, в котором оно показывается вместе с вещью
+     */
+    interface ItemBooking {
+        Long getId();
+
+        Long getItemId();
+
+        Long getBookerId();
+
+        LocalDateTime getStart();
+
+        LocalDateTime getEnd();
+    }
+
+    /**
+     * Версии бронирований вещи
+     */
+    interface ItemBookingsVersion {
+        Long getBookings();
+
+        Long getLastBookingId();
+
+        Long getBookingsVersion();
+    }
 }
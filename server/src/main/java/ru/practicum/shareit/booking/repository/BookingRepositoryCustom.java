@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.GottenBookingDto;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.enums.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Запросы бронирований с постраничным получением по курсору и выборкой сразу в DTO
+ */
+public interface BookingRepositoryCustom {
+    /**
+     * Получение страницы бронирований пользователя после курсора, отсортированных по дате старта и id по убыванию
+     */
+    List<GottenBookingDto> findPageByBookerId(long bookerId, BookingState state, LocalDateTime now,
+                                              BookingCursor cursor, int size);
+
+    /**
+     * Получение страницы бронирований для вещей владельца после курсора,
+     * отсортированных по дате старта и id по убыванию
+     */
+    List<GottenBookingDto> findPageByItemOwnerId(long ownerId, BookingState state, LocalDateTime now,
+                                                 BookingCursor cursor, int size);
+}
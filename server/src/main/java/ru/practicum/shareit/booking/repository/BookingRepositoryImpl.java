@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.GottenBookingDto;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.enums.BookingState;
+import ru.practicum.shareit.enums.BookingStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Реализация запросов бронирований с постраничным получением по курсору.
+ * Строки выбираются сразу в DTO, без загрузки сущностей в контекст персистентности.
+ * Вместо OFFSET используется условие (start, id) < (cursor.start, cursor.id),
+ * поэтому стоимость запроса не зависит от номера страницы
+ */
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<GottenBookingDto> findPageByBookerId(long bookerId, BookingState state, LocalDateTime now,
+                                                     BookingCursor cursor, int size) {
+        return findPage(false, bookerId, state, now, cursor, size);
+    }
+
+    @Override
+    public List<GottenBookingDto> findPageByItemOwnerId(long ownerId, BookingState state, LocalDateTime now,
+                                                        BookingCursor cursor, int size) {
+        return findPage(true, ownerId, state, now, cursor, size);
+    }
+
+    private List<GottenBookingDto> findPage(boolean byOwner, long userId, BookingState state, LocalDateTime now,
+                                            BookingCursor cursor, int size) {
+        StringBuilder jpql = new StringBuilder(BookingRepository.SELECT_GOTTEN_BOOKING_DTO)
+                .append(byOwner ? " where i.owner.id = :userId" : " where u.id = :userId");
+        BookingStatus status = null;
+        boolean usesNow = true;
+
+        switch (state) {
+            case CURRENT:
+                jpql.append(" and b.end > :now and b.start < :now");
+                break;
+            case PAST:
+                jpql.append(" and b.end < :now");
+                break;
+            case FUTURE:
+                jpql.append(" and b.start > :now");
+                break;
+            case WAITING:
+                status = BookingStatus.WAITING;
+                usesNow = false;
+                break;
+            case REJECTED:
+                status = BookingStatus.REJECTED;
+                usesNow = false;
+                break;
+            default:
+                usesNow = false;
+                break;
+        }
+
+        if (status != null) {
+            jpql.append(" and b.status = :status");
+        }
+        if (cursor != null) {
+            jpql.append(" and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId))");
+        }
+
+        jpql.append(" order by b.start desc, b.id desc");
+
+        TypedQuery<GottenBookingDto> query = entityManager.createQuery(jpql.toString(), GottenBookingDto.class)
+                .setParameter("userId", userId)
+                .setMaxResults(size);
+
+        if (usesNow) {
+            query.setParameter("now", now);
+        }
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (cursor != null) {
+            query.setParameter("cursorStart", cursor.getStart())
+                    .setParameter("cursorId", cursor.getId());
+        }
+
+        return query.getResultList();
+    }
+}
@@ -1,15 +1,21 @@
 package ru.practicum.shareit.exception;
 
-import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
 
 /**
- * Исключение записывающее логи
+ * Исключение записывающее логи. Описывает ожидаемую ошибку, например запрос несуществующего объекта,
+ * которая возникает при обычной работе и может быть частой, поэтому стек вызовов не заполняется,
+ * а сообщения одной операции записываются в лог не чаще раза в секунду
  */
-@Slf4j
 public class LoggingException extends Exception {
+    private static final ThrottledLog LOG = new ThrottledLog(LoggerFactory.getLogger(LoggingException.class),
+            Duration.ofSeconds(1));
+
     public LoggingException(String message, String className) {
-        super(message);
+        super(message, null, false, false);
 
-        log.error("{}. {}", className, message);
+        LOG.warn(className, message);
     }
 }
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.exception;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Лог с ограничением частоты: по каждому ключу записывается не больше одного сообщения за интервал,
+ * количество пропущенных сообщений добавляется к следующему записанному. Ключей должно быть немного,
+ * например названия операций
+ */
+class ThrottledLog {
+    private final Logger log;
+    private final long intervalNanos;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    ThrottledLog(Logger log, Duration interval) {
+        this.log = log;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Запись сообщения с уровнем WARN, если по ключу в текущем интервале еще ничего не записано
+     *
+     * @return записано ли сообщение
+     */
+    boolean warn(String key, String message) {
+        if (!log.isWarnEnabled()) {
+            return false;
+        }
+
+        long now = System.nanoTime();
+        Window window = windows.get(key);
+        if (window == null) {
+            window = windows.computeIfAbsent(key, ignored -> new Window(now));
+        }
+
+        long suppressed = window.tryAcquire(now, intervalNanos);
+        if (suppressed < 0) {
+            return false;
+        }
+
+        if (suppressed == 0) {
+            log.warn("{}. {}", key, message);
+        } else {
+            log.warn("{}. {} (пропущено похожих сообщений: {})", key, message, suppressed);
+        }
+        return true;
+    }
+
+    private static class Window {
+        private final AtomicLong nextAt;
+        private final LongAdder suppressed = new LongAdder();
+
+        Window(long now) {
+            this.nextAt = new AtomicLong(now);
+        }
+
+        /**
+         * @return количество пропущенных с прошлой записи сообщений или -1, если интервал еще не истек
+         */
+        long tryAcquire(long now, long intervalNanos) {
+            long next = nextAt.get();
+
+            if (now - next < 0 || !nextAt.compareAndSet(next, now + intervalNanos)) {
+                suppressed.increment();
+                return -1;
+            }
+
+            return suppressed.sumThenReset();
+        }
+    }
+}
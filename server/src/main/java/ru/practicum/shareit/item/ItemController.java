@@ -1,17 +1,24 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.ndjson.NdjsonWriter;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +32,7 @@ public class ItemController {
     private final ItemService itemService;
     private final ItemMapper itemMapper;
     private final CommentMapper commentMapper;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemDto createItem(@RequestHeader(HEADER_USER_ID) long userId, @RequestBody ItemDto itemDto)
@@ -34,10 +42,20 @@ public class ItemController {
         return itemMapper.toItemDto(item);
     }
 
+    @PostMapping("/bulk")
+    public List<ItemImportResultDto> importItems(@RequestHeader(HEADER_USER_ID) long userId,
+                                                 @RequestBody List<ItemDto> itemDtos) throws ObjectNotFountException {
+        return itemService.importItems(userId, itemDtos.stream()
+                .map(itemMapper::toItem)
+                .collect(Collectors.toList()));
+    }
+
     @GetMapping("/{itemId}")
-    public ItemDto getItemById(@RequestHeader(HEADER_USER_ID) long userId, @PathVariable long itemId)
-            throws ObjectNotFountException {
-        return itemMapper.toItemDto((itemService.getItemById(userId, itemId)));
+    public ItemDto getItemById(@RequestHeader(HEADER_USER_ID) long userId, @PathVariable long itemId,
+                               WebRequest request) throws ObjectNotFountException {
+        return itemService.getItemByIdIfModified(userId, itemId, request::checkNotModified)
+                .map(itemMapper::toItemDto)
+                .orElse(null);
     }
 
     @GetMapping
@@ -65,6 +83,15 @@ public class ItemController {
         itemService.deleteItem(userId, itemId);
     }
 
+    @GetMapping("/export")
+    public void exportAllByUserId(@RequestHeader(HEADER_USER_ID) long userId, HttpServletResponse response)
+            throws ObjectNotFountException, IOException {
+        NdjsonWriter<ItemDto> writer = new NdjsonWriter<>(objectMapper, response);
+
+        itemService.exportAllByUserId(userId, writer);
+        writer.close();
+    }
+
     @GetMapping("/search")
     public Collection<ItemDto> searchItemByText(@RequestParam String text,
                                                 @RequestParam(defaultValue = "0") int from,
@@ -2,10 +2,16 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Сервис вещей
@@ -16,11 +22,23 @@ public interface ItemService {
      */
     Item createItem(long userId, Item item) throws ObjectNotFountException, ValidationException;
 
+    /**
+     * Импорт списка вещей пользователя: корректные строки создаются,
+     * для остальных возвращается текст ошибки
+     */
+    List<ItemImportResultDto> importItems(long userId, List<Item> items) throws ObjectNotFountException;
+
     /**
      * Получение вещи по id
      */
     Item getItemById(long userId, long itemId) throws ObjectNotFountException;
 
+    /**
+     * Получение вещи по id, если ее ETag не совпадает с ETag клиента
+     */
+    Optional<Item> getItemByIdIfModified(long userId, long itemId, Predicate<String> isNotModified)
+            throws ObjectNotFountException;
+
     /**
      * Получение всех вещей пользователя
      */
@@ -41,6 +59,11 @@ public interface ItemService {
      */
     Collection<Item> searchItemByText(String text, int from, int size);
 
+    /**
+     * Потоковая выгрузка всех вещей пользователя
+     */
+    void exportAllByUserId(long userId, Consumer<ItemDto> consumer) throws ObjectNotFountException;
+
     /**
      * Создание отзыва
      */
@@ -5,31 +5,58 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.enums.BookingStatus;
+import ru.practicum.shareit.exception.LoggingException;
 import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.trait.ETagTrait;
 import ru.practicum.shareit.trait.PageTrait;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class ItemServiceImpl implements ItemService, PageTrait {
+@Transactional(readOnly = true)
+public class ItemServiceImpl implements ItemService, PageTrait, ETagTrait {
+    /**
+     * Сколько раз страница поиска запрашивается у индекса, если индекс расходится с базой
+     */
+    private static final int INDEX_SEARCH_ATTEMPTS = 3;
+    /**
+     * Количество вещей выгрузки, для которых бронирования и отзывы загружаются одним запросом
+     */
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final UserService userService;
     private final ItemRequestService itemRequestService;
 
@@ -37,22 +64,18 @@ public class ItemServiceImpl implements ItemService, PageTrait {
     private final ItemRepository itemRepository;
     private final CommentRepository commentRepository;
 
+    private final ItemSearchIndex itemSearchIndex;
+
     /**
      * Создание вещи
      */
     @Override
+    @Transactional(rollbackFor = LoggingException.class)
     public Item createItem(long userId, Item item) throws ObjectNotFountException, ValidationException {
         User user = userService.getUserById(userId);
 
-        if (!StringUtils.hasText(item.getName())) {
-            throw new ValidationException("Не заполнено поле name", "CreateItem");
-        }
-        if (item.getDescription() == null) {
-            throw new ValidationException("Не заполнено поле description", "CreateItem");
-        }
-        if (item.getAvailable() == null) {
-            throw new ValidationException("Не заполнено поле available", "CreateItem");
-        }
+        checkItem(item, "CreateItem");
+
         if (item.getRequest() != null) {
             itemRequestService.checkItemRequestExistsById(item.getRequest().getId());
         }
@@ -61,10 +84,67 @@ public class ItemServiceImpl implements ItemService, PageTrait {
 
         Item itemCreated = itemRepository.save(item);
 
+        afterCommit(() -> itemSearchIndex.put(itemCreated));
+
         log.info("CreateItem. Создана вещь с id {}", itemCreated.getId());
         return itemCreated;
     }
 
+    /**
+     * Импорт списка вещей пользователя. Строки с незаполненными полями, несуществующим запросом
+     * или уже занятым названием пропускаются с текстом ошибки, остальные создаются одной пакетной вставкой
+     */
+    @Override
+    @Transactional(rollbackFor = LoggingException.class)
+    public List<ItemImportResultDto> importItems(long userId, List<Item> items) throws ObjectNotFountException {
+        User user = userService.getUserById(userId);
+
+        Set<String> names = items.stream()
+                .map(Item::getName)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toSet());
+
+        names = names.isEmpty() ? new HashSet<>()
+                : new HashSet<>(itemRepository.findNamesByOwnerIdAndNameIn(userId, names));
+        Map<Long, Boolean> requestsExist = new HashMap<>();
+
+        List<ItemImportResultDto> results = new ArrayList<>(items.size());
+        List<ItemImportResultDto> resultsCreated = new ArrayList<>();
+        List<Item> itemsValid = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            String error = getItemError(item);
+
+            if (error == null && item.getRequest() != null
+                    && !requestsExist.computeIfAbsent(item.getRequest().getId(), this::itemRequestExists)) {
+                error = String.format("Запрос с id %d не существует", item.getRequest().getId());
+            }
+            if (error == null && !names.add(item.getName())) {
+                error = String.format("Вещь с названием %s уже существует", item.getName());
+            }
+
+            ItemImportResultDto result = new ItemImportResultDto(i, null, error);
+
+            results.add(result);
+
+            if (error == null) {
+                itemsValid.add(item);
+                resultsCreated.add(result);
+            }
+        }
+
+        List<Item> itemsCreated = saveItems(user, itemsValid);
+
+        for (int i = 0; i < itemsCreated.size(); i++) {
+            resultsCreated.get(i).setId(itemsCreated.get(i).getId());
+        }
+
+        log.info("ImportItems. Создано вещей: {}, отклонено строк: {}", itemsCreated.size(),
+                items.size() - itemsCreated.size());
+        return results;
+    }
+
     /**
      * Получение вещи по id
      */
@@ -72,16 +152,42 @@ public class ItemServiceImpl implements ItemService, PageTrait {
     public Item getItemById(long userId, long itemId) throws ObjectNotFountException {
         userService.checkUserExistsById(userId);
 
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new ObjectNotFountException(
-                String.format("Вещь с id %d не существует", itemId),
-                "getItemById"
-        ));
+        return findItemById(userId, itemId);
+    }
 
-        if (item.getOwner().getId() == userId) {
-            setBookings(item);
+    /**
+     * Получение вещи по id, если ее ETag не совпадает с ETag клиента. ETag учитывает версию владельца,
+     * имя и почта которого входят в ответ. Владелец видит последнее и следующее бронирование, поэтому его ETag учитывает и бронирования вещи
+     */
+    @Override
+    public Optional<Item> getItemByIdIfModified(long userId, long itemId, Predicate<String> isNotModified)
+            throws ObjectNotFountException {
+        userService.checkUserExistsById(userId);
+
+        ItemRepository.ItemVersion version = itemRepository.findVersionById(itemId)
+                .orElseThrow(() -> new ObjectNotFountException(
+                        String.format("Вещь с id %d не существует", itemId),
+                        "GetItemByIdIfModified"
+                ));
+
+        String eTag;
+
+        if (version.getOwnerId() == userId) {
+            BookingRepository.ItemBookingsVersion bookings = bookingRepository.findVersionByItemId(itemId);
+
+            eTag = getETag(itemId, version.getVersion(), version.getOwnerVersion(), version.getComments(),
+                    version.getLastCommentId(), version.getAuthorsVersion(), bookings.getBookings(),
+                    bookings.getLastBookingId(), bookings.getBookingsVersion());
+        } else {
+            eTag = getETag(itemId, version.getVersion(), version.getOwnerVersion(), version.getComments(),
+                    version.getLastCommentId(), version.getAuthorsVersion());
         }
 
-        return item;
+        if (isNotModified.test(eTag)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(findItemById(userId, itemId));
     }
 
     /**
@@ -93,16 +199,14 @@ public class ItemServiceImpl implements ItemService, PageTrait {
 
         Pageable page = getPage(from, size, "id", Sort.Direction.ASC);
 
-        return itemRepository.findAllByOwnerId(userId, page)
-                .stream()
-                .map(this::setBookings)
-                .collect(Collectors.toList());
+        return setBookings(itemRepository.findAllByOwnerId(userId, page));
     }
 
     /**
      * Обновление данных вещи
      */
     @Override
+    @Transactional(rollbackFor = LoggingException.class)
     public Item updateItem(long userId, long itemId, Item item) throws ObjectNotFountException {
         userService.checkUserExistsById(userId);
         Item itemUpdated = getItemById(userId, itemId);
@@ -115,20 +219,27 @@ public class ItemServiceImpl implements ItemService, PageTrait {
         Optional.ofNullable(item.getDescription()).ifPresent(itemUpdated::setDescription);
         Optional.ofNullable(item.getAvailable()).ifPresent(itemUpdated::setAvailable);
 
-        log.info("UpdateItem. Обновлены данные вещи с id {}", itemUpdated.getId());
-        return itemRepository.save(itemUpdated);
+        Item itemSaved = itemRepository.save(itemUpdated);
+
+        afterCommit(() -> itemSearchIndex.put(itemSaved));
+
+        log.info("UpdateItem. Обновлены данные вещи с id {}", itemSaved.getId());
+        return itemSaved;
     }
 
     /**
      * Удаление вещи
      */
     @Override
+    @Transactional(rollbackFor = LoggingException.class)
     public void deleteItem(long userId, long itemId) throws ObjectNotFountException {
         userService.checkUserExistsById(userId);
         checkItemExistsById(itemId);
 
         itemRepository.deleteById(itemId);
 
+        afterCommit(() -> itemSearchIndex.remove(itemId));
+
         log.info("DeleteItem. Удалена вещь с id {}", itemId);
     }
 
@@ -143,13 +254,42 @@ public class ItemServiceImpl implements ItemService, PageTrait {
 
         Pageable page = getPage(from, size, "id", Sort.Direction.ASC);
 
+        if (itemSearchIndex.isReady()) {
+            return searchInIndex(text, page);
+        }
+
         return itemRepository.search(text, page);
     }
 
+    /**
+     * Потоковая выгрузка всех вещей пользователя в том же виде, что и список вещей пользователя.
+     * Строки читаются курсором базы сразу в DTO и не попадают в контекст персистентности, бронирования
+     * и отзывы загружаются в DTO одним запросом на порцию вещей
+     */
+    @Override
+    public void exportAllByUserId(long userId, Consumer<ItemDto> consumer) throws ObjectNotFountException {
+        userService.checkUserExistsById(userId);
+
+        List<ItemDto> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+
+        try (Stream<ItemDto> items = itemRepository.streamAllByOwnerId(userId)) {
+            items.forEach(item -> {
+                chunk.add(item);
+
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    exportChunk(chunk, consumer);
+                }
+            });
+        }
+
+        exportChunk(chunk, consumer);
+    }
+
     /**
      * Создание отзыва
      */
     @Override
+    @Transactional(rollbackFor = LoggingException.class)
     public Comment createComment(long userId, long itemId, Comment comment)
             throws ObjectNotFountException, ValidationException {
         User user = userService.getUserById(userId);
@@ -183,29 +323,206 @@ public class ItemServiceImpl implements ItemService, PageTrait {
         }
     }
 
-    private Item setBookings(Item item) {
-        Optional<Booking> last = getLastBookingForItem(item.getId());
-        Optional<Booking> next = getNextBookingForItem(item.getId());
+    /**
+     * Проверка заполнения обязательных полей вещи
+     */
+    private void checkItem(Item item, String operation) throws ValidationException {
+        String error = getItemError(item);
 
-        item.setLastBooking(last.orElse(null));
-        item.setNextBooking(next.orElse(null));
+        if (error != null) {
+            throw new ValidationException(error, operation);
+        }
+    }
+
+    /**
+     * Получение текста ошибки заполнения вещи или null, если обязательные поля заполнены
+     */
+    private String getItemError(Item item) {
+        if (!StringUtils.hasText(item.getName())) {
+            return "Не заполнено поле name";
+        }
+        if (item.getDescription() == null) {
+            return "Не заполнено поле description";
+        }
+        if (item.getAvailable() == null) {
+            return "Не заполнено поле available";
+        }
+
+        return null;
+    }
+
+    /**
+     * Проверка существования запроса вещи без выбрасывания исключения
+     */
+    private boolean itemRequestExists(long requestId) {
+        try {
+            itemRequestService.checkItemRequestExistsById(requestId);
+            return true;
+        } catch (ObjectNotFountException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Сохранение вещей владельца одним вызовом saveAll и добавление их в индекс поиска после фиксации транзакции
+     */
+    private List<Item> saveItems(User owner, List<Item> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        items.forEach(item -> item.setOwner(owner));
+
+        List<Item> itemsCreated = itemRepository.saveAll(items);
+
+        afterCommit(() -> itemsCreated.forEach(itemSearchIndex::put));
+
+        return itemsCreated;
+    }
+
+    /**
+     * Поиск вещей по индексу со сверкой с базой. Вещи, которых уже нет в базе или которые больше не подходят
+     * под текст, исправляются в индексе, и страница запрашивается у индекса заново, чтобы не вернуть
+     * неполную страницу
+     */
+    private List<Item> searchInIndex(String text, Pageable page) {
+        for (int attempt = 1; ; attempt++) {
+            List<Long> ids = itemSearchIndex.search(text, (int) page.getOffset(), page.getPageSize());
+            Map<Long, Item> itemsById = new HashMap<>();
+
+            for (Item item : itemRepository.findAllById(ids)) {
+                itemsById.put(item.getId(), item);
+            }
+
+            List<Item> items = new ArrayList<>();
+
+            for (Long id : ids) {
+                Item item = itemsById.get(id);
+
+                if (item == null) {
+                    itemSearchIndex.remove(id);
+                } else if (!itemSearchIndex.matches(item, text)) {
+                    itemSearchIndex.put(item);
+                } else {
+                    items.add(item);
+                }
+            }
+
+            if (items.size() == ids.size() || attempt == INDEX_SEARCH_ATTEMPTS) {
+                return items;
+            }
+
+            log.info("SearchItemByText. Индекс поиска расходился с базой для {} вещей",
+                    ids.size() - items.size());
+        }
+    }
+
+    /**
+     * Загрузка вещи по id без проверки пользователя. Владельцу заполняются бронирования
+     */
+    private Item findItemById(long userId, long itemId) throws ObjectNotFountException {
+        Item item = itemRepository.findById(itemId).orElseThrow(() -> new ObjectNotFountException(
+                String.format("Вещь с id %d не существует", itemId),
+                "getItemById"
+        ));
+
+        if (item.getOwner().getId() == userId) {
+            setBookings(item);
+        }
+
+        return item;
+    }
+
+    private Item setBookings(Item item) {
+        setBookings(List.of(item));
 
         return item;
     }
 
     /**
-     * Получедние последнего бронирования для вещи
+     * Заполнение последнего и следующего бронирования для набора вещей одним запросом
      */
-    private Optional<Booking> getLastBookingForItem(long itemId) {
-        return bookingRepository.findFirstByItemIdAndStatusOrderByEnd(itemId,
-                BookingStatus.APPROVED);
+    private List<Item> setBookings(List<Item> items) {
+        if (items.isEmpty()) {
+            return items;
+        }
+
+        Map<Long, Item> itemsById = new HashMap<>();
+
+        for (Item item : items) {
+            item.setLastBooking(null);
+            item.setNextBooking(null);
+            itemsById.put(item.getId(), item);
+        }
+
+        for (Booking booking : bookingRepository.findLastAndNextByItemIdIn(itemsById.keySet(), BookingStatus.APPROVED)) {
+            Item item = itemsById.get(booking.getItem().getId());
+
+            if (item.getLastBooking() == null || booking.getEnd().isBefore(item.getLastBooking().getEnd())) {
+                item.setLastBooking(booking);
+            }
+            if (item.getNextBooking() == null || booking.getEnd().isAfter(item.getNextBooking().getEnd())) {
+                item.setNextBooking(booking);
+            }
+        }
+
+        return items;
     }
 
     /**
-     * Получедние ближайшего слудующего бронирования для вещи
+     * Заполнение бронирований и отзывов порции выгружаемых вещей и передача порции потребителю.
+     * Последним считается бронирование с самой ранней датой окончания, следующим — с самой поздней,
+     * как в списке вещей пользователя
      */
-    private Optional<Booking> getNextBookingForItem(long itemId) {
-        return bookingRepository.findFirstByItemIdAndStatusOrderByEndDesc(itemId,
-                BookingStatus.APPROVED);
+    private void exportChunk(List<ItemDto> chunk, Consumer<ItemDto> consumer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Map<Long, ItemDto> itemsById = new HashMap<>();
+
+        for (ItemDto item : chunk) {
+            itemsById.put(item.getId(), item);
+        }
+
+        for (BookingRepository.ItemBooking booking
+                : bookingRepository.findLastAndNextViewsByItemIdIn(itemsById.keySet(), BookingStatus.APPROVED)) {
+            ItemDto item = itemsById.get(booking.getItemId());
+            ItemDto.Booking itemBooking = new ItemDto.Booking(booking.getId(), booking.getBookerId(),
+                    booking.getStart(), booking.getEnd());
+
+            if (item.getLastBooking() == null || booking.getEnd().isBefore(item.getLastBooking().getEnd())) {
+                item.setLastBooking(itemBooking);
+            }
+            if (item.getNextBooking() == null || booking.getEnd().isAfter(item.getNextBooking().getEnd())) {
+                item.setNextBooking(itemBooking);
+            }
+        }
+
+        for (CommentRepository.ItemComment comment : commentRepository.findAllByItemIdIn(itemsById.keySet())) {
+            itemsById.get(comment.getItemId()).getComments()
+                    .add(new ItemDto.Comment(comment.getId(), comment.getText(), comment.getAuthorName()));
+        }
+
+        chunk.forEach(consumer);
+        chunk.clear();
+    }
+
+    /**
+     * Выполнение действия после фиксации текущей транзакции, чтобы индекс поиска
+     * не видел изменений, которые будут откачены. Без транзакции действие выполняется сразу
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -25,6 +25,16 @@ public class ItemDto {
     private Booking nextBooking;
     Collection<Comment> comments = new ArrayList<>();
 
+    /**
+     * Конструктор для выборки вещи вместе с владельцем сразу в DTO, без загрузки сущностей.
+     * Бронирования и отзывы заполняются отдельно
+     */
+    public ItemDto(Long id, String name, String description, Boolean available, Long ownerId, String ownerName,
+                   String ownerEmail, Long requestId) {
+        this(id, name, description, available, new User(ownerId, ownerName, ownerEmail), requestId, null, null,
+                new ArrayList<>());
+    }
+
     @Data
     @AllArgsConstructor
     @NoArgsConstructor
@@ -2,8 +2,10 @@ package ru.practicum.shareit.item.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.model.VersionedEntity;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -16,17 +18,19 @@ import java.util.Collection;
  */
 @Entity
 @Data
+@EqualsAndHashCode(callSuper = false)
 @Table(name = "items")
 @AllArgsConstructor
 @NoArgsConstructor
-public class Item {
+public class Item extends VersionedEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String description;
     private Boolean available;
-    @ManyToOne()
+    @ManyToOne(optional = false)
     @JoinColumn(name = "owner_id")
     private User owner;
     @OneToOne()
@@ -1,10 +1,33 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Интерфейс репозитория отзыва
  */
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    /**
+     * Получение отзывов для набора вещей вместе с именами авторов без загрузки сущностей
+     */
+    @Query("select c.id as id, c.item.id as itemId, c.text as text, a.name as authorName" +
+            " from Comment c join c.author a where c.item.id in ?1 order by c.id")
+    List<ItemComment> findAllByItemIdIn(Collection<Long> itemIds);
+
+    /**
+     * Отзыв в том виде, в котором он показывается вместе с вещью
+     */
+    interface ItemComment {
+        Long getId();
+
+        Long getItemId();
+
+        String getText();
+
+        String getAuthorName();
+    }
 }
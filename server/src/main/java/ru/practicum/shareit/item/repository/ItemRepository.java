@@ -1,21 +1,86 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Интерфейс репозитория вещи
  */
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @EntityGraph(attributePaths = {"owner", "request"})
     List<Item> findAllByOwnerId(Long userId, Pageable page);
 
+    /**
+     * Поиск доступных вещей по подстроке в названии или описании,
+     * на Postgres запрос обслуживается триграммными индексами из миграции V3__create_item_search_indexes.sql
+     */
+    @EntityGraph(attributePaths = {"owner", "request"})
     @Query("select i from Item i" +
-            " where upper(i.name) like upper(concat('%', ?1, '%'))" +
-            " or upper(i.description) like upper(concat('%', ?1, '%'))" +
-            " and i.available is true")
+            " where i.available is true" +
+            " and (upper(i.name) like upper(concat('%', ?1, '%'))" +
+            " or upper(i.description) like upper(concat('%', ?1, '%')))")
     List<Item> search(String text, Pageable page);
+
+    /**
+     * Получение порции вещей для построения поискового индекса, начиная после переданного id
+     */
+    @Query("select new ru.practicum.shareit.item.search.IndexedItem(i.id, i.name, i.description, i.available)" +
+            " from Item i where i.id > ?1 order by i.id")
+    List<IndexedItem> findIndexedItemsAfter(long id, Pageable page);
+
+    /**
+     * Получение названий из переданного списка, которые уже заняты вещами владельца
+     */
+    @Query("select i.name from Item i where i.owner.id = ?1 and i.name in ?2")
+    List<String> findNamesByOwnerIdAndNameIn(long ownerId, Collection<String> names);
+
+    /**
+     * Потоковая выгрузка всех вещей владельца в DTO, отсортированных по id
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available," +
+            " o.id, o.name, o.email, r.id) from Item i join i.owner o left join i.request r" +
+            " where o.id = ?1 order by i.id")
+    Stream<ItemDto> streamAllByOwnerId(long ownerId);
+
+    /**
+     * Версии вещи, ее владельца и отзывов без загрузки сущностей. Отзывы не изменяются, поэтому достаточно
+     * их количества, последнего id и версий авторов, имена которых показываются в отзывах
+     */
+    @Query("select i.version as version, o.id as ownerId, o.version as ownerVersion, count(c.id) as comments," +
+            " coalesce(max(c.id), 0) as lastCommentId, coalesce(sum(a.version), 0) as authorsVersion" +
+            " from Item i join i.owner o left join i.comments c left join c.author a" +
+            " where i.id = ?1 group by i.id, i.version, o.id, o.version")
+    Optional<ItemVersion> findVersionById(long itemId);
+
+    /**
+     * Версии данных, из которых собирается вещь
+     */
+    interface ItemVersion {
+        Long getVersion();
+
+        Long getOwnerId();
+
+        Long getOwnerVersion();
+
+        Long getComments();
+
+        Long getLastCommentId();
+
+        Long getAuthorsVersion();
+    }
 }
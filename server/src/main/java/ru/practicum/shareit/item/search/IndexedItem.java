@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * Вещь в том виде, в котором она хранится в поисковом индексе
+ */
+@Getter
+public class IndexedItem {
+    private final long id;
+    private final String name;
+    private final String description;
+    private final boolean available;
+
+    public IndexedItem(Long id, String name, String description, Boolean available) {
+        this.id = id;
+        this.name = normalize(name);
+        this.description = normalize(description);
+        this.available = Boolean.TRUE.equals(available);
+    }
+
+    /**
+     * Проверка вхождения подстроки в название или описание, text уже должен быть нормализован
+     */
+    public boolean matches(String text) {
+        return available && (name.contains(text) || description.contains(text));
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+}
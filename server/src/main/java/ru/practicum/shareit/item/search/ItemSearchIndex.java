@@ -0,0 +1,326 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Триграммный инвертированный индекс доступных вещей в памяти.
+ * Включается свойством shareit.item.search-index.enabled, строится при старте приложения
+ * и обновляется сервисом вещей при создании, изменении и удалении вещи. Индекс хранится в каждом экземпляре
+ * сервера отдельно, поэтому изменения, сделанные в обход сервиса вещей этого экземпляра (другим экземпляром
+ * или изменением строк в базе), попадают в индекс при перестройке с интервалом
+ * shareit.item.search-index.refresh-interval. До перестройки сервис вещей сверяет найденные вещи с базой
+ * и исправляет индекс
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private final boolean enabled;
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedItem> changedDuringBuild = new HashMap<>();
+    private Snapshot snapshot = new Snapshot();
+    private boolean building;
+    private volatile boolean ready;
+
+    public ItemSearchIndex(@Value("${shareit.item.search-index.enabled:false}") boolean enabled,
+                           ItemRepository itemRepository) {
+        this.enabled = enabled;
+        this.itemRepository = itemRepository;
+    }
+
+    /**
+     * Построение индекса по всем вещам из базы
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+
+        load();
+
+        lock.readLock().lock();
+        try {
+            log.info("BuildItemSearchIndex. Проиндексировано вещей: {}", snapshot.items.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Перестройка индекса по базе. Поиск до замены индекса идет по прежнему индексу
+     */
+    @Scheduled(initialDelayString = "${shareit.item.search-index.refresh-interval:PT5M}",
+            fixedDelayString = "${shareit.item.search-index.refresh-interval:PT5M}")
+    public void refresh() {
+        if (!enabled || !ready) {
+            return;
+        }
+
+        try {
+            load();
+        } catch (RuntimeException e) {
+            log.warn("RefreshItemSearchIndex. Индекс не перестроен: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Готов ли индекс отвечать на поисковые запросы
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Добавление или обновление вещи в индексе
+     */
+    public void put(Item item) {
+        if (!enabled) {
+            return;
+        }
+
+        IndexedItem indexedItem = toIndexedItem(item);
+
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                changedDuringBuild.put(indexedItem.getId(), indexedItem);
+            }
+
+            snapshot.unindex(indexedItem.getId());
+            snapshot.index(indexedItem);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаление вещи из индекса
+     */
+    public void remove(long itemId) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                changedDuringBuild.put(itemId, null);
+            }
+
+            snapshot.unindex(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Проверка, что вещь из базы находится поиском по тексту
+     */
+    public boolean matches(Item item, String text) {
+        return toIndexedItem(item).matches(IndexedItem.normalize(text));
+    }
+
+    /**
+     * Поиск id доступных вещей по подстроке в названии или описании, отсортированных по возрастанию id
+     */
+    public List<Long> search(String text, int offset, int limit) {
+        String query = IndexedItem.normalize(text);
+        List<Long> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM_LENGTH) {
+                int matched = 0;
+
+                for (IndexedItem item : snapshot.items.values()) {
+                    if (result.size() == limit) {
+                        break;
+                    }
+                    if (item.matches(query) && matched++ >= offset) {
+                        result.add(item.getId());
+                    }
+                }
+
+                return result;
+            }
+
+            List<LongPostingList> lists = new ArrayList<>();
+
+            for (String gram : grams(query)) {
+                LongPostingList list = snapshot.postings.get(gram);
+
+                if (list == null) {
+                    return result;
+                }
+
+                lists.add(list);
+            }
+
+            lists.sort(Comparator.comparingInt(LongPostingList::size));
+
+            LongPostingList smallest = lists.get(0);
+            int matched = 0;
+
+            for (int i = 0; i < smallest.size() && result.size() < limit; i++) {
+                long id = smallest.get(i);
+
+                if (containsAll(lists, id) && snapshot.items.get(id).matches(query) && matched++ >= offset) {
+                    result.add(id);
+                }
+            }
+
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Загрузка всех вещей из базы в новый индекс и замена им текущего. Изменения, сделанные сервисом вещей
+     * во время загрузки, применяются к новому индексу поверх прочитанных из базы строк
+     */
+    private void load() {
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild.clear();
+            building = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Snapshot loaded = new Snapshot();
+        boolean complete = false;
+
+        try {
+            long lastId = 0;
+            List<IndexedItem> batch;
+
+            do {
+                batch = itemRepository.findIndexedItemsAfter(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+                batch.forEach(loaded::index);
+
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == BUILD_BATCH_SIZE);
+
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (complete) {
+                    for (Map.Entry<Long, IndexedItem> change : changedDuringBuild.entrySet()) {
+                        loaded.unindex(change.getKey());
+
+                        if (change.getValue() != null) {
+                            loaded.index(change.getValue());
+                        }
+                    }
+
+                    snapshot = loaded;
+                    ready = true;
+                }
+
+                changedDuringBuild.clear();
+                building = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static IndexedItem toIndexedItem(Item item) {
+        return new IndexedItem(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+    }
+
+    private static boolean containsAll(List<LongPostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static Set<String> grams(IndexedItem item) {
+        Set<String> grams = grams(item.getName());
+
+        grams.addAll(grams(item.getDescription()));
+
+        return grams;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+
+        return grams;
+    }
+
+    /**
+     * Вещи индекса и списки id вещей по триграммам
+     */
+    private static class Snapshot {
+        private final NavigableMap<Long, IndexedItem> items = new TreeMap<>();
+        private final Map<String, LongPostingList> postings = new HashMap<>();
+
+        private void index(IndexedItem item) {
+            if (!item.isAvailable()) {
+                return;
+            }
+
+            items.put(item.getId(), item);
+
+            for (String gram : grams(item)) {
+                postings.computeIfAbsent(gram, key -> new LongPostingList()).add(item.getId());
+            }
+        }
+
+        private void unindex(long itemId) {
+            IndexedItem item = items.remove(itemId);
+
+            if (item == null) {
+                return;
+            }
+
+            for (String gram : grams(item)) {
+                LongPostingList list = postings.get(gram);
+
+                list.remove(itemId);
+
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.Nullable;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * Источник данных, который замеряет время выполнения запросов и передает его в {@link QueryStatistics}.
+ * Оборачиваются только соединения и запросы, результаты запросов возвращаются как есть.
+ * Пакетное выполнение учитывается как один запрос
+ */
+class QueryObservingDataSource extends DelegatingDataSource {
+    private final Supplier<QueryStatistics> statistics;
+
+    QueryObservingDataSource(DataSource targetDataSource, Supplier<QueryStatistics> statistics) {
+        super(targetDataSource);
+        this.statistics = statistics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return observe(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return observe(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection observe(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            Object result = invoke(connection, method, args);
+
+                            if (Statement.class.isAssignableFrom(method.getReturnType())) {
+                                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                                return observe((Statement) result, method.getReturnType(), sql);
+                            }
+
+                            return result;
+                    }
+                });
+    }
+
+    private Object observe(Statement statement, Class<?> type, @Nullable String preparedSql) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+
+                    long startedAt = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        String sql = preparedSql == null && args != null && args.length > 0
+                                && args[0] instanceof String ? (String) args[0] : preparedSql;
+                        statistics.get().statementExecuted(sql, System.nanoTime() - startedAt);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика SQL-запросов: количество запросов к базе на один HTTP-запрос по эндпоинтам и выборочный лог
+ * медленных запросов. HTTP-запрос и запросы к базе связываются через поток, в котором они выполняются.
+ * Количество запросов на эндпоинт также публикуется в метрике shareit.jpa.statements
+ */
+@Slf4j
+public class QueryStatistics {
+    private static final int MAX_SQL_LENGTH = 2000;
+    private static final String NO_ENDPOINT = "none";
+
+    private final QueryStatisticsProperties properties;
+    private final long slowQueryThresholdNanos;
+    private final MeterRegistry meterRegistry;
+    private final Counter slowQueryCounter;
+    private final ThreadLocal<RequestStatements> currentRequest = new ThreadLocal<>();
+    private final Map<String, EndpointStatements> endpoints = new ConcurrentHashMap<>();
+    private final LongAdder slowQueryCount = new LongAdder();
+    private final Deque<QueryStatisticsReport.SlowQuery> slowQueryLog = new ArrayDeque<>();
+
+    public QueryStatistics(QueryStatisticsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.slowQueryThresholdNanos = properties.getSlowQueryThreshold().toNanos();
+        this.meterRegistry = meterRegistry;
+        this.slowQueryCounter = Counter.builder("shareit.jpa.slow.queries")
+                .description("Запросы к базе, выполнявшиеся дольше shareit.query-stats.slow-query-threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Начало обработки HTTP-запроса: запросы к базе из текущего потока относятся к эндпоинту до вызова
+     * {@link #finishRequest()}
+     *
+     * @param uri шаблон пути эндпоинта, а не сам путь, чтобы количество эндпоинтов не росло с данными
+     */
+    public void startRequest(String method, String uri) {
+        currentRequest.set(new RequestStatements(method, uri));
+    }
+
+    /**
+     * Завершение обработки HTTP-запроса в текущем потоке
+     */
+    public void finishRequest() {
+        RequestStatements request = currentRequest.get();
+
+        if (request == null) {
+            return;
+        }
+
+        currentRequest.remove();
+        endpoints.computeIfAbsent(request.getEndpoint(), endpoint -> new EndpointStatements(
+                        DistributionSummary.builder("shareit.jpa.statements")
+                                .description("Запросы к базе на один HTTP-запрос")
+                                .tag("method", request.method)
+                                .tag("uri", request.uri)
+                                .register(meterRegistry)))
+                .record(request.statements);
+    }
+
+    /**
+     * Учет выполненного запроса к базе. Медленный запрос записывается в лог с вероятностью
+     * shareit.query-stats.slow-query-sample-rate
+     *
+     * @param sql текст запроса или null, если он неизвестен
+     */
+    public void statementExecuted(@Nullable String sql, long durationNanos) {
+        RequestStatements request = currentRequest.get();
+
+        if (request != null) {
+            request.statements++;
+        }
+
+        if (durationNanos < slowQueryThresholdNanos) {
+            return;
+        }
+
+        slowQueryCount.increment();
+        slowQueryCounter.increment();
+
+        if (ThreadLocalRandom.current().nextDouble() >= properties.getSlowQuerySampleRate()) {
+            return;
+        }
+
+        String endpoint = request == null ? NO_ENDPOINT : request.getEndpoint();
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        String text = truncate(sql);
+
+        log.warn("SlowQuery. Запрос выполнялся {} мс, эндпоинт {}: {}", durationMillis, endpoint, text);
+
+        synchronized (slowQueryLog) {
+            if (properties.getSlowQueryLogSize() > 0) {
+                if (slowQueryLog.size() >= properties.getSlowQueryLogSize()) {
+                    slowQueryLog.pollFirst();
+                }
+                slowQueryLog.addLast(new QueryStatisticsReport.SlowQuery(Instant.now(), endpoint, durationMillis,
+                        text));
+            }
+        }
+    }
+
+    /**
+     * Текущая статистика. Медленные запросы перечисляются от последнего к первому
+     */
+    public QueryStatisticsReport report(QueryStatisticsReport.PlanCache planCache) {
+        Map<String, QueryStatisticsReport.Endpoint> endpointReports = new TreeMap<>();
+        endpoints.forEach((endpoint, statements) -> endpointReports.put(endpoint, statements.report()));
+
+        List<QueryStatisticsReport.SlowQuery> slowQueries;
+        synchronized (slowQueryLog) {
+            slowQueries = new ArrayList<>(slowQueryLog.size());
+            slowQueryLog.descendingIterator().forEachRemaining(slowQueries::add);
+        }
+
+        return new QueryStatisticsReport(planCache, endpointReports, slowQueryCount.sum(), slowQueries);
+    }
+
+    /**
+     * Сброс статистики эндпоинтов и лога медленных запросов. Метрики Micrometer не сбрасываются
+     */
+    public void reset() {
+        endpoints.values().forEach(EndpointStatements::reset);
+        slowQueryCount.reset();
+
+        synchronized (slowQueryLog) {
+            slowQueryLog.clear();
+        }
+    }
+
+    private static String truncate(@Nullable String sql) {
+        if (sql == null) {
+            return "";
+        }
+
+        return sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+    }
+
+    private static class RequestStatements {
+        private final String method;
+        private final String uri;
+        private long statements;
+
+        RequestStatements(String method, String uri) {
+            this.method = method;
+            this.uri = uri;
+        }
+
+        String getEndpoint() {
+            return method + " " + uri;
+        }
+    }
+
+    private static class EndpointStatements {
+        private final DistributionSummary summary;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Long::max, 0);
+
+        EndpointStatements(DistributionSummary summary) {
+            this.summary = summary;
+        }
+
+        void record(long count) {
+            requests.increment();
+            statements.add(count);
+            maxStatements.accumulate(count);
+            summary.record(count);
+        }
+
+        QueryStatisticsReport.Endpoint report() {
+            long requestCount = requests.sum();
+            long statementCount = statements.sum();
+
+            return new QueryStatisticsReport.Endpoint(requestCount, statementCount, maxStatements.get(),
+                    requestCount == 0 ? 0 : (double) statementCount / requestCount);
+        }
+
+        void reset() {
+            requests.reset();
+            statements.reset();
+            maxStatements.reset();
+        }
+    }
+}
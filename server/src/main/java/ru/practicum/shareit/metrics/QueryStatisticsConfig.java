@@ -0,0 +1,86 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+/**
+ * Подключение сбора статистики SQL-запросов: обертка источника данных, привязка запросов к эндпоинтам
+ * и эндпоинт actuator. Отключается настройкой shareit.query-stats.enabled=false
+ */
+@Configuration
+@EnableConfigurationProperties(QueryStatisticsProperties.class)
+@ConditionalOnProperty(prefix = "shareit.query-stats", name = "enabled", matchIfMissing = true)
+public class QueryStatisticsConfig implements WebMvcConfigurer {
+    private final ObjectProvider<QueryStatistics> queryStatistics;
+
+    public QueryStatisticsConfig(ObjectProvider<QueryStatistics> queryStatistics) {
+        this.queryStatistics = queryStatistics;
+    }
+
+    @Bean
+    public static QueryObservingDataSourcePostProcessor queryObservingDataSourcePostProcessor(
+            ObjectProvider<QueryStatistics> queryStatistics) {
+        return new QueryObservingDataSourcePostProcessor(queryStatistics);
+    }
+
+    @Bean
+    public QueryStatistics queryStatistics(QueryStatisticsProperties properties,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        return new QueryStatistics(properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * Фабрика EntityManager необязательна: в тестах контроллеров @WebMvcTest ее нет
+     */
+    @Bean
+    public QueryStatisticsEndpoint queryStatisticsEndpoint(QueryStatistics queryStatistics,
+                                                           ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return new QueryStatisticsEndpoint(queryStatistics, entityManagerFactory);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryStatisticsInterceptor(queryStatistics.getObject()));
+    }
+
+    /**
+     * Обертка источника данных. Выполняется раньше остальных оберток, чтобы они получали уже обернутый
+     * источник. Статистика получается из контекста при первом запросе к базе, чтобы обертка
+     * не создавала реестр метрик раньше остальных бинов
+     */
+    static class QueryObservingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+        private final ObjectProvider<QueryStatistics> queryStatistics;
+
+        QueryObservingDataSourcePostProcessor(ObjectProvider<QueryStatistics> queryStatistics) {
+            this.queryStatistics = queryStatistics;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource && !(bean instanceof QueryObservingDataSource)) {
+                return new QueryObservingDataSource((DataSource) bean,
+                        SingletonSupplier.of(queryStatistics::getObject));
+            }
+
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
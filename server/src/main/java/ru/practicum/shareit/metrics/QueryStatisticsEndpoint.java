@@ -0,0 +1,47 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Эндпоинт actuator /actuator/queries: количество запросов к базе по эндпоинтам, попадания в кеш планов
+ * запросов Hibernate и последние медленные запросы. DELETE сбрасывает накопленную статистику
+ */
+@Endpoint(id = "queries")
+public class QueryStatisticsEndpoint {
+    private final QueryStatistics queryStatistics;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public QueryStatisticsEndpoint(QueryStatistics queryStatistics,
+                                   ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.queryStatistics = queryStatistics;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @ReadOperation
+    public QueryStatisticsReport queries() {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        long hits = 0;
+        long misses = 0;
+
+        if (factory != null) {
+            Statistics statistics = factory.unwrap(SessionFactory.class).getStatistics();
+            hits = statistics.getQueryPlanCacheHitCount();
+            misses = statistics.getQueryPlanCacheMissCount();
+        }
+
+        return queryStatistics.report(new QueryStatisticsReport.PlanCache(hits, misses,
+                hits + misses == 0 ? 0 : (double) hits / (hits + misses)));
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryStatistics.reset();
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Привязка запросов к базе к эндпоинту, HTTP-запрос к которому обрабатывается в текущем потоке
+ */
+public class QueryStatisticsInterceptor implements HandlerInterceptor {
+    private final QueryStatistics queryStatistics;
+
+    public QueryStatisticsInterceptor(QueryStatistics queryStatistics) {
+        this.queryStatistics = queryStatistics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        queryStatistics.startRequest(request.getMethod(), pattern == null ? "UNKNOWN" : pattern.toString());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        queryStatistics.finishRequest();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки сбора статистики SQL-запросов
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.query-stats")
+public class QueryStatisticsProperties {
+    /**
+     * Включен ли сбор статистики
+     */
+    private boolean enabled = true;
+
+    /**
+     * Время выполнения, начиная с которого запрос считается медленным
+     */
+    private Duration slowQueryThreshold = Duration.ofMillis(100);
+
+    /**
+     * Доля медленных запросов, которые записываются в лог, от 0 до 1
+     */
+    private double slowQuerySampleRate = 1.0;
+
+    /**
+     * Количество последних медленных запросов, которые хранятся для эндпоинта actuator
+     */
+    private int slowQueryLogSize = 100;
+}
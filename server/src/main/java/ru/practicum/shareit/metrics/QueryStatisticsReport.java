@@ -0,0 +1,48 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Статистика SQL-запросов для эндпоинта actuator queries
+ */
+@Value
+public class QueryStatisticsReport {
+    PlanCache planCache;
+    Map<String, Endpoint> endpoints;
+    long slowQueryCount;
+    List<SlowQuery> slowQueries;
+
+    /**
+     * Кеш планов HQL-запросов Hibernate. Собирается только при SHAREIT_HIBERNATE_STATISTICS=true,
+     * иначе все значения равны нулю
+     */
+    @Value
+    public static class PlanCache {
+        long hits;
+        long misses;
+        double hitRatio;
+    }
+
+    /**
+     * Количество выполненных SQL-запросов при обработке HTTP-запросов к одному эндпоинту
+     */
+    @Value
+    public static class Endpoint {
+        long requests;
+        long statements;
+        long maxStatements;
+        double averageStatements;
+    }
+
+    @Value
+    public static class SlowQuery {
+        Instant timestamp;
+        String endpoint;
+        long durationMillis;
+        String sql;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.MappedSuperclass;
+import javax.persistence.Version;
+
+/**
+ * Базовый класс сущностей с версией. Версия увеличивается при каждом изменении строки
+ * и используется для оптимистической блокировки и вычисления ETag
+ */
+@Getter
+@Setter
+@MappedSuperclass
+public abstract class VersionedEntity {
+    @Version
+    private long version;
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.ndjson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Запись объектов в ответ в формате NDJSON, по одному JSON-объекту на строку.
+ * Строки не сбрасываются по одной: данные уходят в сеть по мере заполнения буфера ответа,
+ * поэтому выгрузка не накапливается в памяти. Тип и тело ответа задаются при записи первой строки,
+ * чтобы до нее ответ можно было заменить ошибкой
+ */
+public class NdjsonWriter<T> implements Consumer<T>, Closeable {
+    private final ObjectMapper objectMapper;
+    private final HttpServletResponse response;
+
+    private SequenceWriter writer;
+
+    public NdjsonWriter(ObjectMapper objectMapper, HttpServletResponse response) {
+        this.objectMapper = objectMapper;
+        this.response = response;
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            if (writer == null) {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                writer = objectMapper.writer()
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                        .withRootValueSeparator("\n")
+                        .writeValues(response.getOutputStream());
+            }
+
+            writer.write(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Завершение выгрузки. Вызывается только после успешного чтения, поэтому пустая выгрузка
+     * тоже получает тип NDJSON
+     */
+    @Override
+    public void close() throws IOException {
+        if (writer == null) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        } else {
+            writer.close();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -54,8 +55,10 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getItemRequestById(@RequestHeader(HEADER_USER_ID) long userId, @PathVariable long requestId)
-            throws ObjectNotFountException {
-        return itemRequestMapper.toItemRequestDto(itemRequestService.getItemRequestById(userId, requestId));
+    public ItemRequestDto getItemRequestById(@RequestHeader(HEADER_USER_ID) long userId, @PathVariable long requestId,
+                                             WebRequest request) throws ObjectNotFountException {
+        return itemRequestService.getItemRequestByIdIfModified(userId, requestId, request::checkNotModified)
+                .map(itemRequestMapper::toItemRequestDto)
+                .orElse(null);
     }
 }
@@ -5,6 +5,8 @@ import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * Интерфейс сервиса запроса вещи
@@ -30,6 +32,12 @@ public interface ItemRequestService {
      */
     ItemRequest getItemRequestById(long userId, long requestId) throws ObjectNotFountException;
 
+    /**
+     * Получение запроса вещи по id, если его ETag не совпадает с ETag клиента
+     */
+    Optional<ItemRequest> getItemRequestByIdIfModified(long userId, long requestId, Predicate<String> isNotModified)
+            throws ObjectNotFountException;
+
     /**
      * Проверка существования запроса вещи по id
      */
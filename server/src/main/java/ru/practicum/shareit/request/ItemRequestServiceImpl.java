@@ -5,16 +5,21 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.LoggingException;
 import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.trait.ETagTrait;
 import ru.practicum.shareit.trait.PageTrait;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * Сервис запроса вещи
@@ -22,7 +27,8 @@ import java.util.Collection;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class ItemRequestServiceImpl implements ItemRequestService, PageTrait {
+@Transactional(readOnly = true)
+public class ItemRequestServiceImpl implements ItemRequestService, PageTrait, ETagTrait {
     private final UserService userService;
 
     private final ItemRequestRepository itemRequestRepository;
@@ -31,6 +37,7 @@ public class ItemRequestServiceImpl implements ItemRequestService, PageTrait {
      * Создание запроса вещи
      */
     @Override
+    @Transactional(rollbackFor = LoggingException.class)
     public ItemRequest createItemRequest(long userId, ItemRequest itemRequest)
             throws ObjectNotFountException, ValidationException {
         User user = userService.getUserById(userId);
@@ -78,12 +85,33 @@ public class ItemRequestServiceImpl implements ItemRequestService, PageTrait {
     public ItemRequest getItemRequestById(long userId, long requestId) throws ObjectNotFountException {
         userService.checkUserExistsById(userId);
 
-        return itemRequestRepository.findById(
-                requestId).orElseThrow(() -> new ObjectNotFountException(
+        return findItemRequestById(requestId);
+    }
+
+    /**
+     * Получение запроса вещи по id, если его ETag не совпадает с ETag клиента.
+     * ETag вычисляется по версиям запроса, его автора и ответивших на него вещей
+     */
+    @Override
+    public Optional<ItemRequest> getItemRequestByIdIfModified(long userId, long requestId,
+                                                              Predicate<String> isNotModified)
+            throws ObjectNotFountException {
+        userService.checkUserExistsById(userId);
+
+        ItemRequestRepository.ItemRequestVersion version = itemRequestRepository.findVersionById(requestId)
+                .orElseThrow(() -> new ObjectNotFountException(
                         String.format("Запроса вещи с id %d не существует", requestId),
-                        "GetItemRequestById"
-                )
-        );
+                        "GetItemRequestByIdIfModified"
+                ));
+
+        String eTag = getETag(requestId, version.getVersion(), version.getRequestorVersion(), version.getItems(),
+                version.getLastItemId(), version.getItemsVersion());
+
+        if (isNotModified.test(eTag)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(findItemRequestById(requestId));
     }
 
     /**
@@ -98,4 +126,16 @@ public class ItemRequestServiceImpl implements ItemRequestService, PageTrait {
             );
         }
     }
+
+    /**
+     * Загрузка запроса вещи по id без проверки пользователя
+     */
+    private ItemRequest findItemRequestById(long requestId) throws ObjectNotFountException {
+        return itemRequestRepository.findById(
+                requestId).orElseThrow(() -> new ObjectNotFountException(
+                        String.format("Запроса вещи с id %d не существует", requestId),
+                        "GetItemRequestById"
+                )
+        );
+    }
 }
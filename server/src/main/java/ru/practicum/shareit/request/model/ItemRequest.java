@@ -2,8 +2,10 @@ package ru.practicum.shareit.request.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.model.VersionedEntity;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.*;
@@ -15,12 +17,14 @@ import java.util.Collection;
  */
 @Entity
 @Data
+@EqualsAndHashCode(callSuper = false)
 @Table(name = "item_requests")
 @AllArgsConstructor
 @NoArgsConstructor
-public class ItemRequest {
+public class ItemRequest extends VersionedEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_requests_seq")
+    @SequenceGenerator(name = "item_requests_seq", sequenceName = "item_requests_seq", allocationSize = 50)
     private Long id;
     private String description;
     @ManyToOne
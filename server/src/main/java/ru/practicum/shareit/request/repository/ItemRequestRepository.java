@@ -1,17 +1,46 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Репозиторий запроса вещи
  */
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @EntityGraph(attributePaths = "requestor")
     Collection<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(long userId);
 
+    @EntityGraph(attributePaths = "requestor")
     List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(long userId, Pageable page);
+
+    /**
+     * Версии запроса, его автора и ответивших на него вещей без загрузки сущностей
+     */
+    @Query("select r.version as version, u.version as requestorVersion, count(i.id) as items," +
+            " coalesce(max(i.id), 0) as lastItemId, coalesce(sum(i.version), 0) as itemsVersion" +
+            " from ItemRequest r join r.requestor u left join r.items i" +
+            " where r.id = ?1 group by r.id, r.version, u.version")
+    Optional<ItemRequestVersion> findVersionById(long requestId);
+
+    /**
+     * Версии данных, из которых собирается запрос вещи
+     */
+    interface ItemRequestVersion {
+        Long getVersion();
+
+        Long getRequestorVersion();
+
+        Long getItems();
+
+        Long getLastItemId();
+
+        Long getItemsVersion();
+    }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.trait;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Трейт для вычисления ETag по версиям данных, из которых собирается ответ
+ */
+public interface ETagTrait {
+    default String getETag(Object... versions) {
+        return DigestUtils.md5DigestAsHex(Arrays.toString(versions).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -28,8 +29,10 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable long userId) throws ObjectNotFountException {
-        return userMapper.toUserDto((userService.getUserById(userId)));
+    public UserDto getUserById(@PathVariable long userId, WebRequest request) throws ObjectNotFountException {
+        return userService.getUserByIdIfModified(userId, request::checkNotModified)
+                .map(userMapper::toUserDto)
+                .orElse(null);
     }
 
     @GetMapping
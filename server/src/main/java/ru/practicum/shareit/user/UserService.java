@@ -4,6 +4,8 @@ import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * Сервис пользователей
@@ -19,6 +21,12 @@ public interface UserService {
      */
     User getUserById(long userId) throws ObjectNotFountException;
 
+    /**
+     * Получение пользователя по id, если его ETag не совпадает с ETag клиента
+     */
+    Optional<User> getUserByIdIfModified(long userId, Predicate<String> isNotModified)
+            throws ObjectNotFountException;
+
     /**
      * Получение всех пользователей
      */
@@ -3,23 +3,29 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.LoggingException;
 import ru.practicum.shareit.exception.ObjectNotFountException;
+import ru.practicum.shareit.trait.ETagTrait;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collection;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class UserServiceImpl implements UserService {
+@Transactional(readOnly = true)
+public class UserServiceImpl implements UserService, ETagTrait {
     private final UserRepository userRepository;
 
     /**
      * Создание пользователя
      */
     @Override
+    @Transactional
     public User createUser(User user) {
         user = userRepository.save(user);
 
@@ -38,6 +44,25 @@ public class UserServiceImpl implements UserService {
         );
     }
 
+    /**
+     * Получение пользователя по id, если его ETag не совпадает с ETag клиента.
+     * ETag вычисляется по версии строки, сам пользователь загружается только при изменении
+     */
+    @Override
+    public Optional<User> getUserByIdIfModified(long userId, Predicate<String> isNotModified)
+            throws ObjectNotFountException {
+        long version = userRepository.findVersionById(userId).orElseThrow(() -> new ObjectNotFountException(
+                String.format("Пользователь с id %d не существует", userId),
+                "GetUserByIdIfModified")
+        );
+
+        if (isNotModified.test(getETag(userId, version))) {
+            return Optional.empty();
+        }
+
+        return Optional.of(getUserById(userId));
+    }
+
     /**
      * Получение всех пользователей
      */
@@ -49,6 +74,7 @@ public class UserServiceImpl implements UserService {
      * Обновление пользователя
      */
     @Override
+    @Transactional(rollbackFor = LoggingException.class)
     public User updateUser(long userId, User user) throws ObjectNotFountException {
         User userUpdated = getUserById(userId);
 
@@ -63,6 +89,7 @@ public class UserServiceImpl implements UserService {
      * Удаление пользователя
      */
     @Override
+    @Transactional(rollbackFor = LoggingException.class)
     public void deleteUser(long userId) throws ObjectNotFountException {
         checkUserExistsById(userId);
 
@@ -1,10 +1,18 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Optional;
+
 /**
  * Интерфейс репозитория пользователя
  */
 public interface UserRepository extends JpaRepository<User, Long> {
+    /**
+     * Получение версии пользователя без загрузки сущности
+     */
+    @Query("select u.version from User u where u.id = ?1")
+    Optional<Long> findVersionById(long userId);
 }
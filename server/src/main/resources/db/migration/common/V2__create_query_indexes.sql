@@ -0,0 +1,23 @@
+DROP INDEX IF EXISTS idx_bookings_item_end;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_end ON bookings (booker_id, end_date_time);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date_time DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_status ON bookings (booker_id, item_id, status, start_date_time);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date_time DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_date_time);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_item_requests_requester_created ON item_requests (requester_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS idx_item_requests_created ON item_requests (created DESC);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
@@ -0,0 +1,22 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Базы, созданные до ограничения, могут содержать пересекающиеся бронирования одной вещи.
+-- Из каждой пары пересекающихся активных бронирований остается подтвержденное, а при одинаковом
+-- статусе более раннее, остальные отклоняются. Бронирование отклоняется, даже если бронирование,
+-- которому оно уступает, само отклоняется, поэтому после обновления пересечений не остается
+UPDATE bookings b
+SET status = 'REJECTED'
+WHERE b.status IN ('WAITING', 'APPROVED')
+  AND EXISTS (SELECT 1
+              FROM bookings a
+              WHERE a.item_id = b.item_id
+                AND a.id <> b.id
+                AND a.status IN ('WAITING', 'APPROVED')
+                AND tsrange(a.start_date_time, a.end_date_time) && tsrange(b.start_date_time, b.end_date_time)
+                AND (a.status = 'APPROVED' AND b.status = 'WAITING' OR a.status = b.status AND a.id < b.id));
+
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS EX_BOOKING_ITEM_PERIOD;
+
+ALTER TABLE bookings ADD CONSTRAINT EX_BOOKING_ITEM_PERIOD
+  EXCLUDE USING gist (item_id WITH =, tsrange(start_date_time, end_date_time) WITH &&)
+  WHERE (status IN ('WAITING', 'APPROVED'));
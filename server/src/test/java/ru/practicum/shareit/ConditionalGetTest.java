@@ -0,0 +1,232 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enums.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверка условных GET-запросов: ETag меняется вместе с данными ответа,
+ * а совпадающий If-None-Match получает 304 без загрузки сущностей
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:conditional-get")
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private ItemRequest itemRequest;
+    private Item item;
+    private Booking booking;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Owner", "owner@user.com"));
+        booker = userRepository.save(new User(null, "Booker", "booker@user.com"));
+
+        itemRequest = itemRequestRepository.save(new ItemRequest(null, "Request", booker,
+                LocalDateTime.now(), null));
+
+        item = itemRepository.save(new Item(null, "Item", "ItemDesc", true, owner, itemRequest,
+                null, null, null));
+
+        booking = bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), item, booker, BookingStatus.WAITING));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        commentRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testUserETagChangesAfterUpdate() throws Exception {
+        String url = "/users/" + owner.getId();
+        String eTag = getETag(url, owner);
+
+        assertNotModified(url, owner, eTag);
+
+        mvc.perform(patch(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Renamed\"}"))
+                .andExpect(status().isOk());
+
+        assertModified(url, owner, eTag);
+    }
+
+    @Test
+    void testNotModifiedDoesNotLoadEntities() throws Exception {
+        String url = "/items/" + item.getId();
+        String eTag = getETag(url, owner);
+
+        statistics.clear();
+        mvc.perform(get(url).header(HEADER_USER_ID, owner.getId()))
+                .andExpect(status().isOk());
+        long fullStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertNotModified(url, owner, eTag);
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(fullStatements);
+    }
+
+    @Test
+    void testOwnerItemETagChangesAfterBookingApproval() throws Exception {
+        String url = "/items/" + item.getId();
+        String ownerETag = getETag(url, owner);
+        String bookerETag = getETag(url, booker);
+
+        assertThat(ownerETag).isNotEqualTo(bookerETag);
+
+        mvc.perform(patch("/bookings/" + booking.getId() + "?approved=true")
+                        .header(HEADER_USER_ID, owner.getId()))
+                .andExpect(status().isOk());
+
+        assertModified(url, owner, ownerETag);
+        assertNotModified(url, booker, bookerETag);
+    }
+
+    @Test
+    void testItemETagChangesAfterComment() throws Exception {
+        bookingRepository.save(new Booking(null, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1),
+                item, booker, BookingStatus.APPROVED));
+
+        String url = "/items/" + item.getId();
+        String eTag = getETag(url, booker);
+
+        mvc.perform(post(url + "/comment")
+                        .header(HEADER_USER_ID, booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\": \"Comment\"}"))
+                .andExpect(status().isOk());
+
+        assertModified(url, booker, eTag);
+    }
+
+    @Test
+    void testItemETagChangesAfterOwnerUpdate() throws Exception {
+        String url = "/items/" + item.getId();
+        String eTag = getETag(url, booker);
+
+        mvc.perform(patch("/users/" + owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"renamed@user.com\"}"))
+                .andExpect(status().isOk());
+
+        assertModified(url, booker, eTag);
+    }
+
+    @Test
+    void testBookingETagChangesAfterApproval() throws Exception {
+        String url = "/bookings/" + booking.getId();
+        String eTag = getETag(url, booker);
+
+        assertNotModified(url, owner, eTag);
+
+        mvc.perform(patch(url + "?approved=true")
+                        .header(HEADER_USER_ID, owner.getId()))
+                .andExpect(status().isOk());
+
+        assertModified(url, booker, eTag);
+    }
+
+    @Test
+    void testItemRequestETagChangesAfterNewItem() throws Exception {
+        String url = "/requests/" + itemRequest.getId();
+        String eTag = getETag(url, booker);
+
+        assertNotModified(url, booker, eTag);
+
+        mvc.perform(post("/items")
+                        .header(HEADER_USER_ID, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Drill\", \"description\": \"Drill\", \"available\": true," +
+                                " \"requestId\": " + itemRequest.getId() + "}"))
+                .andExpect(status().isOk());
+
+        assertModified(url, booker, eTag);
+    }
+
+    private String getETag(String url, User user) throws Exception {
+        MvcResult result = mvc.perform(get(url).header(HEADER_USER_ID, user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+
+        return result.getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private void assertNotModified(String url, User user, String eTag) throws Exception {
+        mvc.perform(get(url)
+                        .header(HEADER_USER_ID, user.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    private void assertModified(String url, User user, String eTag) throws Exception {
+        MvcResult result = mvc.perform(get(url)
+                        .header(HEADER_USER_ID, user.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+    }
+}
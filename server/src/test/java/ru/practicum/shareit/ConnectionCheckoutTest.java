@@ -0,0 +1,203 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enums.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверка транзакционной модели сервисов: количество соединений, взятых из пула за запрос,
+ * признак readOnly на чтении и отсутствие flush в читающих запросах
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:connection-checkout")
+@AutoConfigureMockMvc
+class ConnectionCheckoutTest {
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private CountingDataSource dataSource;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private Item item;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Owner", "owner@user.com"));
+
+        User booker = userRepository.save(new User(null, "Booker", "booker@user.com"));
+        ItemRequest itemRequest = itemRequestRepository.save(new ItemRequest(null, "Request", booker,
+                LocalDateTime.now(), null));
+
+        item = itemRepository.save(new Item(null, "Item", "ItemDesc", true, owner, itemRequest,
+                null, null, null));
+
+        bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                item, booker, BookingStatus.WAITING));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        commentRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/users/{userId}",
+            "/items/{itemId}",
+            "/items",
+            "/items/search?text=item",
+            "/bookings/owner?state=ALL",
+            "/bookings/owner?state=ALL&cursor=",
+            "/requests/all",
+            "/items/export",
+            "/bookings/owner/export"
+    })
+    void testReadRequestUsesOneReadOnlyConnectionWithoutFlush(String url) throws Exception {
+        dataSource.reset();
+        statistics.clear();
+
+        mvc.perform(get(url.replace("{userId}", owner.getId().toString())
+                        .replace("{itemId}", item.getId().toString()))
+                        .header(HEADER_USER_ID, owner.getId()))
+                .andExpect(status().isOk());
+
+        assertThat(dataSource.getCheckouts()).as(url).isEqualTo(1);
+        assertThat(dataSource.getReadOnlyCheckouts()).as(url).isEqualTo(1);
+        assertThat(statistics.getFlushCount()).as(url).isZero();
+    }
+
+    @Test
+    void testWriteRequestUsesOneConnectionAndOneTransaction() throws Exception {
+        dataSource.reset();
+        statistics.clear();
+
+        mvc.perform(post("/items")
+                        .header(HEADER_USER_ID, owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Drill\", \"description\": \"Drill\", \"available\": true}"))
+                .andExpect(status().isOk());
+
+        assertThat(dataSource.getCheckouts()).isEqualTo(1);
+        assertThat(dataSource.getReadOnlyCheckouts()).isZero();
+        assertThat(statistics.getTransactionCount()).isEqualTo(1);
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfiguration {
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource && !(bean instanceof CountingDataSource)
+                            ? new CountingDataSource((DataSource) bean)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Источник данных, считающий соединения, взятые из пула, и соединения, переведенные в режим только чтения
+     */
+    static class CountingDataSource extends DelegatingDataSource {
+        private final AtomicInteger checkouts = new AtomicInteger();
+        private final AtomicInteger readOnlyCheckouts = new AtomicInteger();
+
+        CountingDataSource(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            checkouts.incrementAndGet();
+
+            Connection connection = super.getConnection();
+
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("setReadOnly".equals(method.getName()) && Boolean.TRUE.equals(args[0])) {
+                            readOnlyCheckouts.incrementAndGet();
+                        }
+
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        void reset() {
+            checkouts.set(0);
+            readOnlyCheckouts.set(0);
+        }
+
+        int getCheckouts() {
+            return checkouts.get();
+        }
+
+        int getReadOnlyCheckouts() {
+            return readOnlyCheckouts.get();
+        }
+    }
+}
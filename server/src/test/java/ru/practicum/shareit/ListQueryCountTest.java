@@ -0,0 +1,135 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enums.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверка, что количество запросов к базе на списочных эндпоинтах не зависит от количества строк
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:list-query-count")
+@AutoConfigureMockMvc
+class ListQueryCountTest {
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private ItemRequest itemRequest;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Owner", "owner@user.com"));
+        booker = userRepository.save(new User(null, "Booker", "booker@user.com"));
+
+        User requestor = userRepository.save(new User(null, "Requestor", "requestor@user.com"));
+
+        itemRequest = itemRequestRepository.save(new ItemRequest(null, "Request", requestor,
+                LocalDateTime.now(), null));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        commentRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "/bookings?state=ALL, booker",
+            "/bookings?state=PAST, booker",
+            "/bookings?state=ALL&cursor=, booker",
+            "/bookings/owner?state=ALL, owner",
+            "/bookings/owner?state=FUTURE&keyset=true, owner",
+            "/items, owner",
+            "/items/search?text=item, booker",
+            "/requests, requestor",
+            "/requests/all, owner",
+            "/items/export, owner",
+            "/bookings/export, booker",
+            "/bookings/owner/export, owner"
+    })
+    void testStatementCountDoesNotDependOnRowCount(String url, String user) throws Exception {
+        addItems(1);
+        long fewRows = countStatements(url, user);
+
+        addItems(4);
+        long manyRows = countStatements(url, user);
+
+        assertThat(manyRows).as(url).isEqualTo(fewRows);
+    }
+
+    private long countStatements(String url, String user) throws Exception {
+        long userId = "owner".equals(user) ? owner.getId()
+                : "booker".equals(user) ? booker.getId()
+                : itemRequest.getRequestor().getId();
+
+        statistics.clear();
+
+        mvc.perform(get(url).header(HEADER_USER_ID, userId))
+                .andExpect(status().isOk());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void addItems(int count) {
+        for (int i = 0; i < count; i++) {
+            long number = itemRepository.count() + 1;
+            Item item = itemRepository.save(new Item(null, "Item" + number, "ItemDesc" + number, true, owner,
+                    itemRequest, null, null, null));
+
+            commentRepository.save(new Comment(null, "Comment" + number, item, booker, LocalDateTime.now()));
+            bookingRepository.save(new Booking(null, LocalDateTime.now().minusDays(3),
+                    LocalDateTime.now().minusDays(2), item, booker, BookingStatus.APPROVED));
+            bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(2),
+                    LocalDateTime.now().plusDays(3), item, booker, BookingStatus.WAITING));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enums.BookingState;
+import ru.practicum.shareit.enums.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.trait.PageTrait;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.domain.Sort.Direction.DESC;
+
+/**
+ * Проверка, что запросы репозиториев обслуживаются индексами из миграций, а не полным просмотром таблиц.
+ * Проверяется план SQL, который Hibernate генерирует при вызове метода репозитория
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.QueryIndexesTest$RecordingStatementInspector",
+        // встроенная база тестов выдает соединения в режиме автокоммита, иначе данные теста не откатываются
+        "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=false"
+})
+class QueryIndexesTest {
+    private static final PageTrait PAGES = new PageTrait() {
+    };
+    private static final Pageable BOOKINGS_PAGE = PAGES.getPage(0, 10, "start", DESC);
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+    private ItemRequest itemRequest;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now();
+        owner = entityManager.persist(new User(null, "Owner", "owner@user.com"));
+        booker = entityManager.persist(new User(null, "Booker", "booker@user.com"));
+        itemRequest = entityManager.persist(new ItemRequest(null, "Request", booker, now, null));
+        item = entityManager.persist(new Item(null, "Item", "ItemDesc", true, owner, itemRequest,
+                null, null, null));
+
+        entityManager.persist(new Comment(null, "Comment", item, booker, now));
+        booking = entityManager.persist(new Booking(null, now.minusDays(2), now.minusDays(1), item, booker,
+                BookingStatus.APPROVED));
+        entityManager.flush();
+        entityManager.clear();
+
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    static Stream<Arguments> repositoryCalls() {
+        return Stream.of(
+                call("BookingRepository.findAllByBookerId",
+                        test -> test.bookingRepository.findAllByBookerId(test.booker.getId(), BOOKINGS_PAGE)),
+                call("BookingRepository.findAllByBookerIdAndEndIsAfterAndStartIsBefore",
+                        test -> test.bookingRepository.findAllByBookerIdAndEndIsAfterAndStartIsBefore(
+                                test.booker.getId(), test.now, test.now, BOOKINGS_PAGE)),
+                call("BookingRepository.findAllByBookerIdAndEndIsBefore",
+                        test -> test.bookingRepository.findAllByBookerIdAndEndIsBefore(test.booker.getId(),
+                                test.now, BOOKINGS_PAGE)),
+                call("BookingRepository.findAllByBookerIdAndStartIsAfter",
+                        test -> test.bookingRepository.findAllByBookerIdAndStartIsAfter(test.booker.getId(),
+                                test.now, BOOKINGS_PAGE)),
+                call("BookingRepository.findAllByBookerIdAndStatus",
+                        test -> test.bookingRepository.findAllByBookerIdAndStatus(test.booker.getId(),
+                                BookingStatus.WAITING, BOOKINGS_PAGE)),
+                call("BookingRepository.findAllByItemOwnerId",
+                        test -> test.bookingRepository.findAllByItemOwnerId(test.owner.getId(), BOOKINGS_PAGE)),
+                call("BookingRepository.findAllByItemOwnerIdAndEndIsAfterAndStartIsBefore",
+                        test -> test.bookingRepository.findAllByItemOwnerIdAndEndIsAfterAndStartIsBefore(
+                                test.owner.getId(), test.now, test.now, BOOKINGS_PAGE)),
+                call("BookingRepository.findAllByItemOwnerIdAndEndIsBefore",
+                        test -> test.bookingRepository.findAllByItemOwnerIdAndEndIsBefore(test.owner.getId(),
+                                test.now, BOOKINGS_PAGE)),
+                call("BookingRepository.findAllByItemOwnerIdAndStartIsAfter",
+                        test -> test.bookingRepository.findAllByItemOwnerIdAndStartIsAfter(test.owner.getId(),
+                                test.now, BOOKINGS_PAGE)),
+                call("BookingRepository.findAllByItemOwnerIdAndStatus",
+                        test -> test.bookingRepository.findAllByItemOwnerIdAndStatus(test.owner.getId(),
+                                BookingStatus.WAITING, BOOKINGS_PAGE)),
+                call("BookingRepository.findPageByBookerId",
+                        test -> test.bookingRepository.findPageByBookerId(test.booker.getId(), BookingState.PAST,
+                                test.now, new BookingCursor(test.now, Long.MAX_VALUE), 10)),
+                call("BookingRepository.findPageByItemOwnerId",
+                        test -> test.bookingRepository.findPageByItemOwnerId(test.owner.getId(),
+                                BookingState.WAITING, test.now, new BookingCursor(test.now, Long.MAX_VALUE), 10)),
+                call("BookingRepository.findFirstByItemIdAndStatusOrderByEnd",
+                        test -> test.bookingRepository.findFirstByItemIdAndStatusOrderByEnd(test.item.getId(),
+                                BookingStatus.APPROVED)),
+                call("BookingRepository.findFirstByItemIdAndStatusOrderByEndDesc",
+                        test -> test.bookingRepository.findFirstByItemIdAndStatusOrderByEndDesc(test.item.getId(),
+                                BookingStatus.APPROVED)),
+                call("BookingRepository.findLastAndNextByItemIdIn",
+                        test -> test.bookingRepository.findLastAndNextByItemIdIn(List.of(test.item.getId()),
+                                BookingStatus.APPROVED)),
+                call("BookingRepository.findLastAndNextViewsByItemIdIn",
+                        test -> test.bookingRepository.findLastAndNextViewsByItemIdIn(List.of(test.item.getId()),
+                                BookingStatus.APPROVED)),
+                call("BookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter",
+                        test -> test.bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                                test.item.getId(), Set.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                                test.now, test.now)),
+                call("BookingRepository.findFirstByBookerIdAndItemIdAndStatusAndStartBefore",
+                        test -> test.bookingRepository.findFirstByBookerIdAndItemIdAndStatusAndStartBefore(
+                                test.booker.getId(), test.item.getId(), BookingStatus.APPROVED, test.now)),
+                call("BookingRepository.streamAllByBookerId",
+                        test -> consume(test.bookingRepository.streamAllByBookerId(test.booker.getId()))),
+                call("BookingRepository.streamAllByItemOwnerId",
+                        test -> consume(test.bookingRepository.streamAllByItemOwnerId(test.owner.getId()))),
+                call("BookingRepository.findVersionById",
+                        test -> test.bookingRepository.findVersionById(test.booking.getId())),
+                call("BookingRepository.findVersionByItemId",
+                        test -> test.bookingRepository.findVersionByItemId(test.item.getId())),
+                call("ItemRepository.findAllByOwnerId",
+                        test -> test.itemRepository.findAllByOwnerId(test.owner.getId(),
+                                PAGES.getPage(0, 10, "id", ASC))),
+                call("ItemRepository.streamAllByOwnerId",
+                        test -> consume(test.itemRepository.streamAllByOwnerId(test.owner.getId()))),
+                call("ItemRepository.findVersionById",
+                        test -> test.itemRepository.findVersionById(test.item.getId())),
+                call("ItemRequestRepository.findAllByRequestorIdOrderByCreatedDesc",
+                        test -> test.itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(
+                                test.booker.getId())),
+                call("ItemRequestRepository.findVersionById",
+                        test -> test.itemRequestRepository.findVersionById(test.itemRequest.getId())),
+                call("UserRepository.findVersionById",
+                        test -> test.userRepository.findVersionById(test.owner.getId())),
+                call("CommentRepository.findAllByItemIdIn",
+                        test -> test.commentRepository.findAllByItemIdIn(List.of(test.item.getId()))),
+                call("Item.comments",
+                        test -> test.entityManager.find(Item.class, test.item.getId()).getComments().size()),
+                call("ItemRequest.items",
+                        test -> test.entityManager.find(ItemRequest.class, test.itemRequest.getId())
+                                .getItems().size())
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryCalls")
+    void testQueryUsesIndex(String name, Consumer<QueryIndexesTest> repositoryCall) {
+        repositoryCall.accept(this);
+
+        List<String> statements = RecordingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.trim().toLowerCase().startsWith("select"))
+                .collect(Collectors.toList());
+
+        assertThat(statements).as(name).isNotEmpty();
+
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+            assertThat(plan).as(name + ": " + sql).doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    private static Arguments call(String name, Consumer<QueryIndexesTest> repositoryCall) {
+        return Arguments.of(name, repositoryCall);
+    }
+
+    /**
+     * Потоковые запросы выполняются при чтении потока, поток закрывается, чтобы освободить курсор
+     */
+    private static void consume(Stream<?> stream) {
+        try (stream) {
+            stream.forEach(row -> {
+            });
+        }
+    }
+
+    /**
+     * Запоминает SQL, подготовленный Hibernate. Параметры в плане остаются неподставленными, H2 строит план
+     * запроса по его тексту
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
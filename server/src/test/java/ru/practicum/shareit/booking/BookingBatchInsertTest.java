@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enums.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Вставка 100 000 бронирований: идентификаторы из последовательности выдаются пачками,
+ * поэтому строки уходят в базу пакетами JDBC, а не отдельным запросом на каждую.
+ * Тест выполняется больше 10 секунд, поэтому запускается только в профиле slow-tests
+ */
+@Slf4j
+@Tag("slow")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-batch-insert",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=info",
+        "logging.level.org.hibernate.type.descriptor.sql=info"
+})
+@DirtiesContext
+class BookingBatchInsertTest {
+    private static final int BOOKINGS = 100_000;
+    private static final int CHUNK = 1_000;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void testInsertsAreBatched() {
+        User owner = userRepository.save(new User(null, "BatchOwner", "batch-owner@user.com"));
+        User booker = userRepository.save(new User(null, "BatchBooker", "batch-booker@user.com"));
+        Item item = itemRepository.save(new Item(null, "BatchItem", "BatchItemDesc", true, owner,
+                null, null, null, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        long startedAt = System.nanoTime();
+
+        for (int chunk = 0; chunk < BOOKINGS; chunk += CHUNK) {
+            List<Booking> bookings = new ArrayList<>(CHUNK);
+
+            for (int i = chunk; i < chunk + CHUNK; i++) {
+                bookings.add(new Booking(null, start.plusHours(2L * i), start.plusHours(2L * i + 1), item, booker,
+                        BookingStatus.WAITING));
+            }
+
+            transactionTemplate.executeWithoutResult(status -> bookingRepository.saveAll(bookings));
+        }
+
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        log.info("Вставлено {} бронирований за {} мс, подготовлено запросов: {}",
+                BOOKINGS, elapsedMillis, statistics.getPrepareStatementCount());
+
+        assertThat(bookingRepository.count()).isEqualTo(BOOKINGS);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(BOOKINGS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(BOOKINGS / 10);
+    }
+}
@@ -11,8 +11,10 @@ import ru.practicum.shareit.booking.dto.CreatedBookingDto;
 import ru.practicum.shareit.booking.dto.GottenBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import ru.practicum.shareit.enums.BookingState;
 import ru.practicum.shareit.enums.BookingStatus;
+import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.exception.UserHaveNoRightsException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -21,10 +23,17 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -125,8 +134,8 @@ class BookingControllerTest {
 
     @Test
     void testGetItemById() throws Exception {
-        when(bookingService.getBookingById(any(Long.class), any(Long.class)))
-                .thenReturn(mockBooking);
+        when(bookingService.getBookingByIdIfModified(any(Long.class), any(Long.class), any()))
+                .thenReturn(Optional.of(mockBooking));
         doReturn(mockGottenBookingDto).when(bookingMapper).toGottenBookingDto(any());
 
         mvc.perform(get("/bookings/1")
@@ -194,4 +203,101 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.[0].booker.id", is(mockGottenBookingDto.getItem().getId()), Long.class))
                 .andExpect(jsonPath("$.[0].status", is(mockGottenBookingDto.getStatus().toString())));
     }
+
+    @Test
+    void testGetAllByBookerIdWithCursor() throws Exception {
+        when(bookingService.getAllByBookerIdAfter(eq(1L), eq(BookingState.ALL), isNull(), eq(1)))
+                .thenReturn(List.of(mockGottenBookingDto));
+
+        mvc.perform(get("/bookings")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HEADER_USER_ID, 1)
+                        .queryParam("size", "1")
+                        .queryParam("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor",
+                        BookingCursor.of(mockGottenBookingDto.getStart(), mockGottenBookingDto.getId()).encode()))
+                .andExpect(jsonPath("$.[0].id", is(mockGottenBookingDto.getId()), Long.class));
+    }
+
+    @Test
+    void testGetAllByOwnerIdKeysetFirstPage() throws Exception {
+        when(bookingService.getAllByOwnerIdAfter(eq(1L), eq(BookingState.ALL), isNull(), eq(1)))
+                .thenReturn(List.of(mockGottenBookingDto));
+
+        mvc.perform(get("/bookings/owner")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HEADER_USER_ID, 1)
+                        .queryParam("size", "1")
+                        .queryParam("keyset", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor",
+                        BookingCursor.of(mockGottenBookingDto.getStart(), mockGottenBookingDto.getId()).encode()))
+                .andExpect(jsonPath("$.[0].id", is(mockGottenBookingDto.getId()), Long.class));
+    }
+
+    @Test
+    void testGetAllByOwnerIdWithCursorLastPage() throws Exception {
+        BookingCursor cursor = BookingCursor.of(mockBooking.getStart(), mockBooking.getId());
+
+        when(bookingService.getAllByOwnerIdAfter(eq(1L), eq(BookingState.ALL), any(BookingCursor.class), eq(10)))
+                .thenReturn(List.of(mockGottenBookingDto));
+
+        mvc.perform(get("/bookings/owner")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HEADER_USER_ID, 1)
+                        .queryParam("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.[0].id", is(mockGottenBookingDto.getId()), Long.class));
+    }
+
+    @Test
+    void testGetAllByBookerIdWithWrongCursor() throws Exception {
+        mvc.perform(get("/bookings")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HEADER_USER_ID, 1)
+                        .queryParam("cursor", "wrong"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExportAllByOwnerId() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<GottenBookingDto> consumer = invocation.getArgument(1);
+
+            consumer.accept(mockGottenBookingDto);
+            consumer.accept(mockGottenBookingDto);
+            return null;
+        }).when(bookingService).exportAllByOwnerId(eq(1L), any());
+
+        String body = mvc.perform(get("/bookings/owner/export")
+                        .header(HEADER_USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(mapper.readValue(lines[1], GottenBookingDto.class).getId()).isEqualTo(mockGottenBookingDto.getId());
+    }
+
+    @Test
+    void testExportAllByBookerIdWithUnknownUser() throws Exception {
+        doThrow(new ObjectNotFountException("Пользователь с id 99 не существует", "CheckUserExistsById"))
+                .when(bookingService).exportAllByBookerId(eq(99L), any());
+
+        mvc.perform(get("/bookings/export")
+                        .header(HEADER_USER_ID, 99))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
 }
+
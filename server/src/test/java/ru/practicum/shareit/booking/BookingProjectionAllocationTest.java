@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.GottenBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enums.BookingState;
+import ru.practicum.shareit.enums.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сравнение объема памяти, выделяемого на один запрос списка бронирований,
+ * при загрузке сущностей с маппингом и при выборке сразу в DTO
+ */
+@Slf4j
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-projection-allocation",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=info",
+        "logging.level.org.hibernate.type.descriptor.sql=info"
+})
+@DirtiesContext
+class BookingProjectionAllocationTest {
+    private static final int BOOKINGS = 50;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingMapper bookingMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User(null, "AllocationOwner", "allocation-owner@user.com"));
+        Item item = itemRepository.save(new Item(null, "AllocationItem", "AllocationItemDesc", true, owner,
+                null, null, null, null));
+
+        booker = userRepository.save(new User(null, "AllocationBooker", "allocation-booker@user.com"));
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(2L * i + 1),
+                    LocalDateTime.now().plusDays(2L * i + 2), item, booker, BookingStatus.WAITING));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testProjectionAllocatesLessThanEntities() throws Exception {
+        long bookerId = booker.getId();
+
+        Callable<List<GottenBookingDto>> entities = () -> bookingService
+                .getAllByBookerId(bookerId, BookingState.ALL, 0, BOOKINGS)
+                .stream()
+                .map(bookingMapper::toGottenBookingDto)
+                .collect(Collectors.toList());
+        Callable<List<GottenBookingDto>> projection = () -> bookingService
+                .getAllByBookerIdAfter(bookerId, BookingState.ALL, null, BOOKINGS);
+
+        assertThat(projection.call()).hasSize(BOOKINGS);
+        assertThat(entities.call()).hasSize(BOOKINGS);
+
+        long entitiesBytes = allocatedBytesPerCall(entities);
+        long projectionBytes = allocatedBytesPerCall(projection);
+
+        log.info("Выделено памяти на запрос из {} бронирований: сущности {} байт, DTO {} байт",
+                BOOKINGS, entitiesBytes, projectionBytes);
+
+        assertThat(projectionBytes).isLessThan(entitiesBytes);
+    }
+
+    private static long allocatedBytesPerCall(Callable<?> call) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            call.call();
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.call();
+        }
+
+        return (threads.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+    }
+}
@@ -38,8 +38,8 @@ class BookingServiceImplIntegrationTest {
 
     private static final Booking mockBooking1 = new Booking(1L, LocalDateTime.now().plusDays(1),
             LocalDateTime.now().plusDays(5), mockItem1, mockUser2, BookingStatus.WAITING);
-    private static final Booking mockBooking2 = new Booking(2L, LocalDateTime.now().plusDays(2),
-            LocalDateTime.now().plusDays(4), mockItem1, mockUser2, BookingStatus.WAITING);
+    private static final Booking mockBooking2 = new Booking(2L, LocalDateTime.now().plusDays(6),
+            LocalDateTime.now().plusDays(8), mockItem1, mockUser2, BookingStatus.WAITING);
 
     @Test
     void testGetAllByBookerId() throws Exception {
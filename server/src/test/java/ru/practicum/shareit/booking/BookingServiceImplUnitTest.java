@@ -9,6 +9,7 @@ import org.mockito.Mockito;
 import org.mockito.MockitoSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -22,6 +23,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
@@ -90,19 +92,64 @@ class BookingServiceImplUnitTest {
     void testCreateBooking() throws ObjectNotFountException, ValidationException, UserHaveNoRightsException {
         Mockito.when(itemService.getItemById(Mockito.any(Long.class), Mockito.any(Long.class)))
                 .thenReturn(mockItem1);
-        Mockito.when(bookingRepository.save(Mockito.any(Booking.class)))
+        Mockito.when(bookingRepository.saveAndFlush(Mockito.any(Booking.class)))
                 .thenReturn(mockBooking1);
 
         Booking booking = bookingService.createBooking(2L, mockBooking1);
 
         Mockito.verify(bookingRepository, Mockito.times(1))
-                .save(mockBooking1);
+                .saveAndFlush(mockBooking1);
 
         assertThat(booking.getId(), notNullValue());
         assertThat(booking.getStart(), equalTo(mockBooking1.getStart()));
         assertThat(booking.getEnd(), equalTo(mockBooking1.getEnd()));
     }
 
+    @Test
+    void testCreateBookingOverlapping() throws ObjectNotFountException {
+        Mockito.when(itemService.getItemById(Mockito.any(Long.class), Mockito.any(Long.class)))
+                .thenReturn(mockItem1);
+        Mockito.when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Mockito.eq(1L),
+                        Mockito.anyCollection(), Mockito.eq(mockBooking1.getEnd()), Mockito.eq(mockBooking1.getStart())))
+                .thenReturn(true);
+
+        Exception exception = assertThrows(ValidationException.class, () ->
+                bookingService.createBooking(2L, mockBooking1));
+
+        Mockito.verify(bookingRepository, Mockito.never())
+                .saveAndFlush(Mockito.any(Booking.class));
+
+        assertEquals("Вещь уже забронирована на указанный период", exception.getMessage());
+    }
+
+    @Test
+    void testCreateBookingConcurrentOverlap() throws ObjectNotFountException {
+        Mockito.when(itemService.getItemById(Mockito.any(Long.class), Mockito.any(Long.class)))
+                .thenReturn(mockItem1);
+        Mockito.when(bookingRepository.saveAndFlush(Mockito.any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", new SQLException(
+                        "ERROR: conflicting key value violates exclusion constraint \"ex_booking_item_period\"",
+                        "23P01")));
+
+        Exception exception = assertThrows(ValidationException.class, () ->
+                bookingService.createBooking(2L, mockBooking1));
+
+        assertEquals("Вещь уже забронирована на указанный период", exception.getMessage());
+    }
+
+    @Test
+    void testCreateBookingOtherConstraintViolationIsNotOverlap() throws ObjectNotFountException {
+        Mockito.when(itemService.getItemById(Mockito.any(Long.class), Mockito.any(Long.class)))
+                .thenReturn(mockItem1);
+        Mockito.when(bookingRepository.saveAndFlush(Mockito.any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", new SQLException(
+                        "ERROR: insert or update on table \"bookings\" violates foreign key constraint" +
+                                " \"fk_bookings_to_users\"", "23503")));
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+                bookingService.createBooking(2L, mockBooking1));
+    }
+
     @Test
     void testCreateBookingFailValidationBooking() throws ObjectNotFountException {
         Mockito.when(itemService.getItemById(Mockito.any(Long.class), Mockito.any(Long.class)))
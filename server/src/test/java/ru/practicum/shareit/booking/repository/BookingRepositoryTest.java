@@ -7,7 +7,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.GottenBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.enums.BookingState;
 import ru.practicum.shareit.enums.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -16,7 +19,10 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -287,6 +293,129 @@ class BookingRepositoryTest {
         assertThat(bookings.get()).isEqualTo(mockBooking4);
     }
 
+    @Test
+    void testFindLastAndNextByItemIdIn() {
+        userRepository.save(mockUser1);
+        userRepository.save(mockUser2);
+        itemRepository.save(mockItem1);
+        itemRepository.save(mockItem2);
+        bookingRepository.save(mockBooking1);
+        bookingRepository.save(mockBooking2);
+        bookingRepository.save(mockBooking3);
+        bookingRepository.save(mockBooking4);
+
+        Collection<Booking> bookings = bookingRepository.findLastAndNextByItemIdIn(List.of(1L, 2L),
+                BookingStatus.WAITING);
+
+        assertThat(bookings).hasSize(2).contains(mockBooking1, mockBooking3);
+    }
+
+    @Test
+    void testExistsByItemIdAndStatusInAndStartBeforeAndEndAfter() {
+        userRepository.save(mockUser1);
+        userRepository.save(mockUser2);
+        itemRepository.save(mockItem1);
+        itemRepository.save(mockItem2);
+        bookingRepository.save(mockBooking1);
+        bookingRepository.save(mockBooking2);
+        bookingRepository.save(mockBooking3);
+        bookingRepository.save(mockBooking4);
+
+        List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        assertThat(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(1L, statuses,
+                mockBooking1.getEnd().plusDays(1), mockBooking1.getEnd().minusDays(1))).isTrue();
+        assertThat(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(1L, statuses,
+                mockBooking2.getStart().minusMinutes(1), mockBooking1.getEnd().plusMinutes(1))).isFalse();
+        assertThat(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(1L,
+                List.of(BookingStatus.REJECTED), mockBooking1.getEnd(), mockBooking1.getStart())).isFalse();
+    }
+
+    @Test
+    void testFindPageByBookerId() {
+        userRepository.save(mockUser1);
+        userRepository.save(mockUser2);
+        itemRepository.save(mockItem1);
+        itemRepository.save(mockItem2);
+        bookingRepository.save(mockBooking1);
+        bookingRepository.save(mockBooking2);
+        bookingRepository.save(mockBooking3);
+        bookingRepository.save(mockBooking4);
+
+        List<GottenBookingDto> firstPage = bookingRepository.findPageByBookerId(2L, BookingState.ALL,
+                LocalDateTime.now(), null, 1);
+        List<GottenBookingDto> secondPage = bookingRepository.findPageByBookerId(2L, BookingState.ALL,
+                LocalDateTime.now(), BookingCursor.of(firstPage.get(0).getStart(), firstPage.get(0).getId()), 1);
+        List<GottenBookingDto> lastPage = bookingRepository.findPageByBookerId(2L, BookingState.ALL,
+                LocalDateTime.now(), BookingCursor.of(secondPage.get(0).getStart(), secondPage.get(0).getId()), 1);
+
+        assertThat(firstPage).hasSize(1);
+        assertThat(firstPage.get(0).getId()).isEqualTo(mockBooking2.getId());
+        assertThat(firstPage.get(0).getItem().getName()).isEqualTo(mockItem1.getName());
+        assertThat(firstPage.get(0).getBooker().getEmail()).isEqualTo(mockUser2.getEmail());
+        assertThat(secondPage).hasSize(1);
+        assertThat(secondPage.get(0).getId()).isEqualTo(mockBooking1.getId());
+        assertThat(lastPage).isEmpty();
+    }
+
+    @Test
+    void testFindPageByItemOwnerIdAndState() {
+        userRepository.save(mockUser1);
+        userRepository.save(mockUser2);
+        itemRepository.save(mockItem1);
+        itemRepository.save(mockItem2);
+        bookingRepository.save(mockBooking1);
+        bookingRepository.save(mockBooking2);
+        bookingRepository.save(mockBooking3);
+        bookingRepository.save(mockBooking4);
+
+        List<GottenBookingDto> bookings = bookingRepository.findPageByItemOwnerId(2L, BookingState.WAITING,
+                LocalDateTime.now(), null, SIZE);
+
+        assertThat(bookings).hasSize(1);
+        assertThat(bookings.get(0).getId()).isEqualTo(mockBooking3.getId());
+        assertThat(bookings.get(0).getStatus()).isEqualTo(BookingStatus.WAITING);
+    }
+
+    @Test
+    void testStreamAllByItemOwnerId() {
+        userRepository.save(mockUser1);
+        userRepository.save(mockUser2);
+        itemRepository.save(mockItem1);
+        itemRepository.save(mockItem2);
+        bookingRepository.save(mockBooking1);
+        bookingRepository.save(mockBooking2);
+        bookingRepository.save(mockBooking3);
+        bookingRepository.save(mockBooking4);
+
+        List<GottenBookingDto> bookings;
+
+        try (Stream<GottenBookingDto> stream = bookingRepository.streamAllByItemOwnerId(2L)) {
+            bookings = stream.collect(Collectors.toList());
+        }
+
+        assertThat(bookings).extracting(GottenBookingDto::getId)
+                .containsExactly(mockBooking4.getId(), mockBooking3.getId());
+        assertThat(bookings.get(0).getItem().getName()).isEqualTo(mockItem2.getName());
+        assertThat(bookings.get(0).getBooker().getId()).isEqualTo(1L);
+    }
+
+    @Test
+    void testStreamAllByBookerId() {
+        userRepository.save(mockUser1);
+        userRepository.save(mockUser2);
+        itemRepository.save(mockItem1);
+        itemRepository.save(mockItem2);
+        bookingRepository.save(mockBooking1);
+        bookingRepository.save(mockBooking2);
+        bookingRepository.save(mockBooking3);
+        bookingRepository.save(mockBooking4);
+
+        try (Stream<GottenBookingDto> stream = bookingRepository.streamAllByBookerId(2L)) {
+            assertThat(stream.map(GottenBookingDto::getId)).containsExactly(2L, 1L);
+        }
+    }
+
     @Test
     void testFindFirstByBookerIdAndItemIdAndStatusAndStartBefore() {
         userRepository.save(mockUser1);
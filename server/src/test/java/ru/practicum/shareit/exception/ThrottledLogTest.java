@@ -0,0 +1,55 @@
+package ru.practicum.shareit.exception;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ограничение частоты записи ожидаемых ошибок в лог
+ */
+class ThrottledLogTest {
+    private final Logger logger = mock(Logger.class);
+
+    @Test
+    void testMessagesOverLimitAreSuppressedAndCounted() throws InterruptedException {
+        when(logger.isWarnEnabled()).thenReturn(true);
+        ThrottledLog log = new ThrottledLog(logger, Duration.ofMillis(100));
+
+        assertThat(log.warn("GetUserById", "first")).isTrue();
+        assertThat(log.warn("GetUserById", "second")).isFalse();
+        assertThat(log.warn("GetUserById", "third")).isFalse();
+        assertThat(log.warn("GetItemById", "other")).isTrue();
+
+        TimeUnit.MILLISECONDS.sleep(150);
+
+        assertThat(log.warn("GetUserById", "fourth")).isTrue();
+        verify(logger).warn("{}. {}", "GetUserById", "first");
+        verify(logger).warn("{}. {}", "GetItemById", "other");
+        verify(logger).warn("{}. {} (пропущено похожих сообщений: {})", "GetUserById", "fourth", 2L);
+    }
+
+    @Test
+    void testNothingIsLoggedWhenWarnIsDisabled() {
+        ThrottledLog log = new ThrottledLog(logger, Duration.ofMillis(100));
+
+        assertThat(log.warn("GetUserById", "first")).isFalse();
+        verify(logger, times(0)).warn("{}. {}", "GetUserById", "first");
+    }
+
+    @Test
+    void testExpectedErrorsHaveNoStackTrace() {
+        ObjectNotFountException exception = new ObjectNotFountException("Пользователь с id 1 не существует",
+                "GetUserById");
+
+        assertThat(exception.getStackTrace()).isEmpty();
+        assertThat(exception.getMessage()).isEqualTo("Пользователь с id 1 не существует");
+    }
+}
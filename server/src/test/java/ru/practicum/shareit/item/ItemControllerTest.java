@@ -5,11 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
@@ -20,9 +22,14 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -93,8 +100,8 @@ class ItemControllerTest {
 
     @Test
     void testGetItemById() throws Exception {
-        when(itemService.getItemById(any(Long.class), any(Long.class)))
-                .thenReturn(mockItem);
+        when(itemService.getItemByIdIfModified(any(Long.class), any(Long.class), any()))
+                .thenReturn(Optional.of(mockItem));
         doReturn(mockItemDto).when(itemMapper).toItemDto(any());
 
         mvc.perform(get("/items/1")
@@ -120,9 +127,30 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.comments", is(mockItemDto.getComments())));
     }
 
+    @Test
+    void testGetItemByIdNotModified() throws Exception {
+        when(itemService.getItemByIdIfModified(any(Long.class), any(Long.class), any()))
+                .thenAnswer(invocation -> invocation.<Predicate<String>>getArgument(2).test("item-etag")
+                        ? Optional.empty()
+                        : Optional.of(mockItem));
+
+        mvc.perform(get("/items/1")
+                        .header(HEADER_USER_ID, 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"item-etag\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"item-etag\""))
+                .andExpect(content().string(""));
+
+        mvc.perform(get("/items/1")
+                        .header(HEADER_USER_ID, 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"stale-etag\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"item-etag\""));
+    }
+
     @Test
     void testGetItemByWrongId() throws Exception {
-        when(itemService.getItemById(any(Long.class), any(Long.class)))
+        when(itemService.getItemByIdIfModified(any(Long.class), any(Long.class), any()))
                 .thenThrow(new ObjectNotFountException("TestGetItemByWrongId", "TestGetItemByWrongId"));
 
         mvc.perform(get("/items/1")
@@ -231,6 +259,24 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.[0].comments", is(mockItemDto.getComments())));
     }
 
+    @Test
+    void testImportItems() throws Exception {
+        when(itemService.importItems(any(Long.class), any()))
+                .thenReturn(List.of(new ItemImportResultDto(0, 1L, null),
+                        new ItemImportResultDto(1, null, "Не заполнено поле description")));
+        doReturn(mockItem).when(itemMapper).toItem(any());
+
+        mvc.perform(post("/items/bulk")
+                        .content(mapper.writeValueAsString(List.of(mockItemDto, mockItemDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HEADER_USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1L), Long.class))
+                .andExpect(jsonPath("$[1].error", is("Не заполнено поле description")));
+    }
+
     @Test
     void testCreateComment() throws Exception {
         when(itemService.createComment(any(Long.class), any(Long.class), any()))
@@ -251,4 +297,21 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.created", is(mockCommentDto.getCreated()
                         .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))));
     }
+
+    @Test
+    void testExportAllByUserId() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ItemDto> consumer = invocation.getArgument(1);
+
+            consumer.accept(mockItemDto);
+            return null;
+        }).when(itemService).exportAllByUserId(eq(1L), any());
+
+        mvc.perform(get("/items/export")
+                        .header(HEADER_USER_ID, 1))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(jsonPath("$.name", is(mockItemDto.getName())));
+    }
 }
+
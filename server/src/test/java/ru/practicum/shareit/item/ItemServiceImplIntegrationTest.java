@@ -1,17 +1,30 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.enums.BookingStatus;
 import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -22,8 +35,12 @@ import static org.hamcrest.Matchers.*;
 class ItemServiceImplIntegrationTest {
     private final UserService userService;
     private final ItemService itemService;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final EntityManagerFactory entityManagerFactory;
 
     private final User mockUser1 = new User(1L, "User1", "1@user.com");
+    private final User mockUser2 = new User(2L, "User2", "2@user.com");
 
     private final Item mockItem1 = new Item(1L, "Item1", "ItemDesc1", true, mockUser1,
             null, null, null, null);
@@ -52,4 +69,89 @@ class ItemServiceImplIntegrationTest {
         assertThat(items, hasSize(0));
         assertThat(items, empty());
     }
+
+    @Test
+    void testGetAllByUserIdQueryCountDoesNotDependOnPageSize() throws ValidationException, ObjectNotFountException {
+        userService.createUser(mockUser1);
+        userService.createUser(mockUser2);
+
+        for (int i = 0; i < 5; i++) {
+            Item item = itemService.createItem(mockUser1.getId(),
+                    new Item(null, "Item" + i, "ItemDesc" + i, true, null, null, null, null, null));
+
+            bookingRepository.save(new Booking(null, LocalDateTime.now().minusDays(4),
+                    LocalDateTime.now().minusDays(2), item, mockUser2, BookingStatus.APPROVED));
+            bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(2),
+                    LocalDateTime.now().plusDays(4), item, mockUser2, BookingStatus.APPROVED));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        statistics.clear();
+        Collection<Item> smallPage = itemService.getAllByUserId(mockUser1.getId(), 0, 1);
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Collection<Item> largePage = itemService.getAllByUserId(mockUser1.getId(), 0, 5);
+        long largePageStatements = statistics.getPrepareStatementCount();
+
+        assertThat(smallPage, hasSize(1));
+        assertThat(largePage, hasSize(5));
+        assertThat(largePage.stream().allMatch(item -> item.getLastBooking() != null
+                && item.getNextBooking() != null), is(true));
+        assertThat(smallPageStatements, greaterThan(0L));
+        assertThat(largePageStatements, equalTo(smallPageStatements));
+    }
+
+    @Test
+    void testExportAllByUserIdMatchesGetAllByUserId() throws ValidationException, ObjectNotFountException {
+        userService.createUser(mockUser1);
+        userService.createUser(mockUser2);
+        itemService.createItem(mockUser1.getId(), mockItem1);
+        itemService.createItem(mockUser1.getId(), new Item(null, "Item2", "ItemDesc2", true, null, null,
+                null, null, null));
+
+        bookingRepository.save(new Booking(null, LocalDateTime.now().minusDays(4),
+                LocalDateTime.now().minusDays(2), mockItem1, mockUser2, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(2),
+                LocalDateTime.now().plusDays(4), mockItem1, mockUser2, BookingStatus.APPROVED));
+        commentRepository.save(new Comment(null, "Comment1", mockItem1, mockUser2, LocalDateTime.now()));
+
+        List<Item> items = List.copyOf(itemService.getAllByUserId(mockUser1.getId(), 0, 10));
+        List<ItemDto> exported = new ArrayList<>();
+
+        itemService.exportAllByUserId(mockUser1.getId(), exported::add);
+
+        assertThat(exported, hasSize(2));
+        assertThat(exported.get(0).getOwner(), equalTo(new ItemDto.User(mockUser1.getId(), "User1", "1@user.com")));
+        assertThat(exported.get(0).getLastBooking().getId(), equalTo(items.get(0).getLastBooking().getId()));
+        assertThat(exported.get(0).getLastBooking().getBookerId(), equalTo(mockUser2.getId()));
+        assertThat(exported.get(0).getNextBooking().getId(), equalTo(items.get(0).getNextBooking().getId()));
+        assertThat(exported.get(0).getComments(), contains(new ItemDto.Comment(1L, "Comment1", "User2")));
+        assertThat(exported.get(1).getLastBooking(), nullValue());
+        assertThat(exported.get(1).getNextBooking(), nullValue());
+        assertThat(exported.get(1).getComments(), empty());
+    }
+
+    @Test
+    void testImportItems() throws ValidationException, ObjectNotFountException {
+        userService.createUser(mockUser1);
+        itemService.createItem(mockUser1.getId(), mockItem1);
+
+        List<ItemImportResultDto> results = itemService.importItems(mockUser1.getId(), List.of(
+                new Item(null, "Item2", "ItemDesc2", true, null, null, null, null, null),
+                new Item(null, "Item1", "ItemDesc1", true, null, null, null, null, null),
+                new Item(null, "Item3", null, true, null, null, null, null, null),
+                new Item(null, "Item4", "ItemDesc4", false, null, null, null, null, null)
+        ));
+
+        assertThat(results, hasSize(4));
+        assertThat(results.get(0).getId(), notNullValue());
+        assertThat(results.get(1).getError(), equalTo("Вещь с названием Item1 уже существует"));
+        assertThat(results.get(2).getError(), equalTo("Не заполнено поле description"));
+        assertThat(results.get(3).getId(), notNullValue());
+        assertThat(itemService.getAllByUserId(mockUser1.getId(), 0, 10), hasSize(3));
+    }
 }
+
@@ -15,10 +15,12 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.enums.BookingStatus;
 import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.ItemRequestService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.UserService;
@@ -74,6 +76,9 @@ class ItemServiceImplUnitTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
     private ItemService itemService;
 
     private MockitoSession session;
@@ -83,7 +88,7 @@ class ItemServiceImplUnitTest {
     void setUp() {
         session = Mockito.mockitoSession().initMocks(this).startMocking();
         itemService = new ItemServiceImpl(userService, itemRequestService, bookingRepository, itemRepository,
-                commentRepository);
+                commentRepository, itemSearchIndex);
     }
 
     @AfterEach
@@ -102,6 +107,8 @@ class ItemServiceImplUnitTest {
 
         Mockito.verify(itemRepository, Mockito.times(1))
                 .save(mockItem1);
+        Mockito.verify(itemSearchIndex, Mockito.times(1))
+                .put(mockItem1);
 
         assertThat(item.getId(), notNullValue());
         assertThat(item.getName(), equalTo(mockItem1.getName()));
@@ -131,6 +138,38 @@ class ItemServiceImplUnitTest {
         assertEquals("Не заполнено поле available", exception3.getMessage());
     }
 
+    @Test
+    void testImportItems() throws ObjectNotFountException {
+        Item itemDuplicate = new Item(null, "Item1", "ItemDesc", true, null, null, null, null, null);
+        Item itemWithUnknownRequest = new Item(null, "Item3", "ItemDesc3", true, null,
+                new ItemRequest(2L, null, null, null, null), null, null, null);
+
+        Mockito.when(userService.getUserById(Mockito.any(Long.class)))
+                .thenReturn(mockUser1);
+        Mockito.when(itemRepository.findNamesByOwnerIdAndNameIn(Mockito.eq(1L), Mockito.anyCollection()))
+                .thenReturn(List.of("Item1"));
+        Mockito.doThrow(new ObjectNotFountException("Запрос вещи с id 2 не существует", "Test"))
+                .when(itemRequestService).checkItemRequestExistsById(2L);
+        Mockito.when(itemRepository.saveAll(Mockito.anyList()))
+                .thenReturn(List.of(mockUpdatedItem1));
+
+        List<ItemImportResultDto> results = itemService.importItems(1L, List.of(itemDuplicate, mockItemWithoutDesc,
+                itemWithUnknownRequest, mockUpdatedItem1));
+
+        Mockito.verify(itemRepository, Mockito.times(1))
+                .saveAll(List.of(mockUpdatedItem1));
+        Mockito.verify(itemSearchIndex, Mockito.times(1))
+                .put(mockUpdatedItem1);
+
+        assertThat(results, hasSize(4));
+        assertThat(results.get(0).getError(), equalTo("Вещь с названием Item1 уже существует"));
+        assertThat(results.get(1).getError(), equalTo("Не заполнено поле description"));
+        assertThat(results.get(2).getError(), equalTo("Запрос с id 2 не существует"));
+        assertThat(results.get(3).getIndex(), equalTo(3));
+        assertThat(results.get(3).getId(), equalTo(mockUpdatedItem1.getId()));
+        assertThat(results.get(3).getError(), nullValue());
+    }
+
     @Test
     void testGetItemById() throws ObjectNotFountException {
         Mockito.when(itemRepository.findById(Mockito.any(Long.class)))
@@ -175,6 +214,29 @@ class ItemServiceImplUnitTest {
         assertThat(items, equalTo(List.of(mockItem1, mockItem2)));
     }
 
+    @Test
+    void testGetAllByUserIdWithBookings() throws ObjectNotFountException {
+        Booking mockLastBooking = new Booking(2L, LocalDateTime.now().minusDays(8),
+                LocalDateTime.now().minusDays(2), mockItem1, mockUser2, BookingStatus.APPROVED);
+
+        Mockito.when(itemRepository.findAllByOwnerId(Mockito.any(Long.class), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(mockItem1, mockItem2));
+        Mockito.when(bookingRepository.findLastAndNextByItemIdIn(Mockito.anyCollection(),
+                        Mockito.any(BookingStatus.class)))
+                .thenReturn(List.of(mockBooking, mockLastBooking));
+
+        Collection<Item> items = itemService.getAllByUserId(1L, 0, 20);
+
+        Mockito.verify(bookingRepository, Mockito.times(1))
+                .findLastAndNextByItemIdIn(Mockito.anyCollection(), Mockito.any(BookingStatus.class));
+
+        assertThat(items, hasSize(2));
+        assertThat(mockItem1.getLastBooking(), sameInstance(mockLastBooking));
+        assertThat(mockItem1.getNextBooking(), sameInstance(mockBooking));
+        assertThat(mockItem2.getLastBooking(), nullValue());
+        assertThat(mockItem2.getNextBooking(), nullValue());
+    }
+
     @Test
     void testUpdateItem() throws ObjectNotFountException {
         Mockito.when(itemRepository.save(Mockito.any(Item.class)))
@@ -215,6 +277,8 @@ class ItemServiceImplUnitTest {
 
         Mockito.verify(itemRepository, Mockito.times(1))
                 .deleteById(1L);
+        Mockito.verify(itemSearchIndex, Mockito.times(1))
+                .remove(1L);
     }
 
     @Test
@@ -231,6 +295,48 @@ class ItemServiceImplUnitTest {
         assertThat(items, equalTo(List.of(mockItem2)));
     }
 
+    @Test
+    void testSearchItemByTextUsesIndex() {
+        Mockito.when(itemSearchIndex.isReady())
+                .thenReturn(true);
+        Mockito.when(itemSearchIndex.search("Item1", 20, 20))
+                .thenReturn(List.of(2L, 1L));
+        Mockito.when(itemRepository.findAllById(List.of(2L, 1L)))
+                .thenReturn(List.of(mockItem1, mockItem2));
+        Mockito.when(itemSearchIndex.matches(Mockito.any(Item.class), Mockito.eq("Item1")))
+                .thenReturn(true);
+
+        Collection<Item> items = itemService.searchItemByText("Item1", 25, 20);
+
+        Mockito.verify(itemRepository, Mockito.never())
+                .search(Mockito.any(String.class), Mockito.any(Pageable.class));
+
+        assertThat(items, contains(sameInstance(mockItem2), sameInstance(mockItem1)));
+    }
+
+    @Test
+    void testSearchItemByTextRefillsPageWithStaleIndex() {
+        Item mockItem3 = new Item(3L, "Item3", "ItemDesc3", true, mockUser1, null, null, null, null);
+
+        Mockito.when(itemSearchIndex.isReady())
+                .thenReturn(true);
+        Mockito.when(itemSearchIndex.search("Item", 0, 2))
+                .thenReturn(List.of(1L, 2L), List.of(1L, 3L));
+        Mockito.when(itemRepository.findAllById(List.of(1L, 2L)))
+                .thenReturn(List.of(mockItem1));
+        Mockito.when(itemRepository.findAllById(List.of(1L, 3L)))
+                .thenReturn(List.of(mockItem1, mockItem3));
+        Mockito.when(itemSearchIndex.matches(Mockito.any(Item.class), Mockito.eq("Item")))
+                .thenReturn(true);
+
+        Collection<Item> items = itemService.searchItemByText("Item", 0, 2);
+
+        Mockito.verify(itemSearchIndex, Mockito.times(1))
+                .remove(2L);
+
+        assertThat(items, contains(sameInstance(mockItem1), sameInstance(mockItem3)));
+    }
+
     @Test
     void testCreateComment() throws ObjectNotFountException, ValidationException {
         Mockito.when(userService.getUserById(Mockito.any(Long.class)))
@@ -7,11 +7,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collection;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -62,4 +64,35 @@ class ItemRepositoryTest {
         assertThat(items).isNotEmpty();
         assertThat(items).hasSize(1).contains(mockItem2);
     }
+
+    @Test
+    void testSearchSkipsUnavailableItems() {
+        Item unavailableItem = new Item(null, "Item3", "ItemDesc3", false, mockUser1, null, null, null, null);
+
+        userRepository.save(mockUser1);
+        userRepository.save(mockUser2);
+        itemRepository.save(mockItem1);
+        itemRepository.save(unavailableItem);
+
+        Sort sortById = Sort.by(Sort.Direction.DESC, "id");
+        Pageable page = PageRequest.of(PAGE, SIZE, sortById);
+
+        Collection<Item> items = itemRepository.search("item", page);
+
+        assertThat(items).hasSize(1).contains(mockItem1);
+    }
+
+    @Test
+    void testStreamAllByOwnerId() {
+        userRepository.save(mockUser1);
+        userRepository.save(mockUser2);
+        itemRepository.save(mockItem1);
+        itemRepository.save(mockItem2);
+        itemRepository.save(new Item(null, "Item3", "ItemDesc3", false, mockUser2, null, null, null, null));
+
+        try (Stream<ItemDto> items = itemRepository.streamAllByOwnerId(2L)) {
+            assertThat(items.map(ItemDto::getName)).containsExactly("Item2", "Item3");
+        }
+    }
 }
+
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoSession;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ItemSearchIndexTest {
+    private final IndexedItem mockItem1 = new IndexedItem(1L, "Дрель", "Простая дрель", true);
+    private final IndexedItem mockItem2 = new IndexedItem(2L, "Отвертка", "Аккумуляторная отвертка", true);
+    private final IndexedItem mockItem3 = new IndexedItem(3L, "Дрель ударная", "Мощная", false);
+    private final IndexedItem mockItem4 = new IndexedItem(4L, "Шуруповерт", "Дрель-шуруповерт", true);
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex itemSearchIndex;
+
+    private MockitoSession session;
+
+    @BeforeEach
+    void setUp() {
+        session = Mockito.mockitoSession().initMocks(this).startMocking();
+        itemSearchIndex = new ItemSearchIndex(true, itemRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.finishMocking();
+    }
+
+    @Test
+    void testBuildAndSearch() {
+        build();
+
+        assertThat(itemSearchIndex.isReady(), is(true));
+        assertThat(itemSearchIndex.search("дрель", 0, 20), contains(1L, 4L));
+        assertThat(itemSearchIndex.search("ОТВЕР", 0, 20), contains(2L));
+        assertThat(itemSearchIndex.search("молоток", 0, 20), empty());
+    }
+
+    @Test
+    void testSearchShortText() {
+        build();
+
+        assertThat(itemSearchIndex.search("др", 0, 20), contains(1L, 4L));
+    }
+
+    @Test
+    void testSearchPagination() {
+        build();
+
+        assertThat(itemSearchIndex.search("р", 0, 2), contains(1L, 2L));
+        assertThat(itemSearchIndex.search("р", 2, 2), contains(4L));
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        build();
+
+        itemSearchIndex.put(new Item(3L, "Дрель ударная", "Мощная", true, null, null, null, null, null));
+        itemSearchIndex.put(new Item(1L, "Перфоратор", "Простой", true, null, null, null, null, null));
+        itemSearchIndex.remove(4L);
+
+        assertThat(itemSearchIndex.search("дрель", 0, 20), contains(3L));
+        assertThat(itemSearchIndex.search("перфо", 0, 20), contains(1L));
+    }
+
+    @Test
+    void testChangesDuringBuildAreNotOverwritten() {
+        Mockito.when(itemRepository.findIndexedItemsAfter(Mockito.eq(0L), Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    itemSearchIndex.remove(1L);
+                    return List.of(mockItem1, mockItem2);
+                });
+
+        itemSearchIndex.build();
+
+        assertThat(itemSearchIndex.search("дрель", 0, 20), empty());
+        assertThat(itemSearchIndex.search("отвертка", 0, 20), contains(2L));
+    }
+
+    @Test
+    void testRefreshPicksUpChangesFromDatabase() {
+        build();
+
+        Mockito.when(itemRepository.findIndexedItemsAfter(0L, PageRequest.of(0, 1000)))
+                .thenReturn(List.of(mockItem2, new IndexedItem(5L, "Дрель", "Новая дрель", true)));
+
+        itemSearchIndex.refresh();
+
+        assertThat(itemSearchIndex.search("дрель", 0, 20), contains(5L));
+        assertThat(itemSearchIndex.search("отвертка", 0, 20), contains(2L));
+    }
+
+    @Test
+    void testChangesDuringRefreshAreNotOverwritten() {
+        build();
+
+        Mockito.when(itemRepository.findIndexedItemsAfter(0L, PageRequest.of(0, 1000)))
+                .thenAnswer(invocation -> {
+                    itemSearchIndex.put(new Item(6L, "Дрель", "Добавлена во время перестройки", true, null, null,
+                            null, null, null));
+                    itemSearchIndex.remove(4L);
+                    return List.of(mockItem1, mockItem2, mockItem4);
+                });
+
+        itemSearchIndex.refresh();
+
+        assertThat(itemSearchIndex.search("дрель", 0, 20), contains(1L, 6L));
+    }
+
+    @Test
+    void testFailedRefreshKeepsIndex() {
+        build();
+
+        Mockito.when(itemRepository.findIndexedItemsAfter(0L, PageRequest.of(0, 1000)))
+                .thenThrow(new IllegalStateException("База недоступна"));
+
+        itemSearchIndex.refresh();
+
+        assertThat(itemSearchIndex.isReady(), is(true));
+        assertThat(itemSearchIndex.search("дрель", 0, 20), contains(1L, 4L));
+    }
+
+    @Test
+    void testMatches() {
+        Item item = new Item(1L, "Дрель", "Простая дрель", true, null, null, null, null, null);
+
+        assertThat(itemSearchIndex.matches(item, "ДРЕЛЬ"), is(true));
+        assertThat(itemSearchIndex.matches(item, "отвертка"), is(false));
+
+        item.setAvailable(false);
+
+        assertThat(itemSearchIndex.matches(item, "дрель"), is(false));
+    }
+
+    @Test
+    void testDisabledIndex() {
+        ItemSearchIndex disabled = new ItemSearchIndex(false, itemRepository);
+
+        disabled.build();
+        disabled.put(new Item(1L, "Дрель", "Простая дрель", true, null, null, null, null, null));
+
+        Mockito.verifyNoInteractions(itemRepository);
+        assertThat(disabled.isReady(), is(false));
+    }
+
+    private void build() {
+        Mockito.when(itemRepository.findIndexedItemsAfter(0L, PageRequest.of(0, 1000)))
+                .thenReturn(List.of(mockItem1, mockItem2, mockItem3, mockItem4));
+
+        itemSearchIndex.build();
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Статистика SQL-запросов по эндпоинтам и лог медленных запросов в эндпоинте actuator queries.
+ * Порог медленного запроса нулевой, поэтому медленными считаются все запросы
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-statistics",
+        "shareit.query-stats.slow-query-threshold=0ms",
+        "shareit.query-stats.slow-query-log-size=5"
+})
+@AutoConfigureMockMvc
+class QueryStatisticsTest {
+    private static final String USER_ENDPOINT = "$.endpoints['GET /users/{userId}']";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private QueryStatistics queryStatistics;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "User", "queries@user.com"));
+        queryStatistics.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testStatementsAreCountedByEndpoint() throws Exception {
+        mvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk());
+        mvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(USER_ENDPOINT + ".requests").value(2))
+                .andExpect(jsonPath(USER_ENDPOINT + ".maxStatements").value(greaterThan(0)))
+                .andExpect(jsonPath(USER_ENDPOINT + ".statements").value(greaterThan(1)))
+                .andExpect(jsonPath("$.planCache.hitRatio").isNumber());
+    }
+
+    @Test
+    void testSlowQueriesAreLoggedWithEndpoint() throws Exception {
+        mvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.slowQueryCount").value(greaterThan(0)))
+                .andExpect(jsonPath("$.slowQueries[0].endpoint").value("GET /users/{userId}"))
+                .andExpect(jsonPath("$.slowQueries[0].sql").value(containsString("users")));
+    }
+
+    @Test
+    void testResetClearsStatistics() throws Exception {
+        mvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk());
+
+        mvc.perform(delete("/actuator/queries"))
+                .andExpect(status().is2xxSuccessful());
+
+        mvc.perform(get("/actuator/queries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(USER_ENDPOINT + ".requests").value(0))
+                .andExpect(jsonPath("$.slowQueryCount").value(0))
+                .andExpect(jsonPath("$.slowQueries").isEmpty());
+    }
+}
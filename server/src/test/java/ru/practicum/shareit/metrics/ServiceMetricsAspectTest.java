@@ -0,0 +1,51 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.ObjectNotFountException;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Метрики времени вызовов сервисов и репозиториев
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:service-metrics")
+class ServiceMetricsAspectTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testServiceAndRepositoryCallsAreTimed() throws ObjectNotFountException {
+        User user = userService.createUser(new User(null, "User", "metrics@user.com"));
+
+        userService.getUserById(user.getId());
+
+        assertThat(meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tags("service", "UserServiceImpl", "method", "getUserById", "exception", "None")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tags("service", "UserServiceImpl", "method", "createUser", "exception", "None")
+                .timer().totalTime(TimeUnit.NANOSECONDS)).isPositive();
+        assertThat(meterRegistry.get("spring.data.repository.invocations")
+                .tags("repository", "UserRepository", "method", "findById", "state", "SUCCESS")
+                .timer().count()).isPositive();
+    }
+
+    @Test
+    void testFailedServiceCallsAreTimedByException() {
+        assertThrows(ObjectNotFountException.class, () -> userService.deleteUser(Long.MAX_VALUE));
+
+        assertThat(meterRegistry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tags("service", "UserServiceImpl", "method", "deleteUser", "exception", "ObjectNotFountException")
+                .timer().count()).isEqualTo(1);
+    }
+}
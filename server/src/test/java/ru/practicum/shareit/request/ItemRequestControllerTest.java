@@ -17,6 +17,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -128,8 +129,8 @@ class ItemRequestControllerTest {
 
     @Test
     void testGetItemRequestById() throws Exception {
-        when(itemRequestService.getItemRequestById(any(Long.class), any(Long.class)))
-                .thenReturn(mockItemRequest);
+        when(itemRequestService.getItemRequestByIdIfModified(any(Long.class), any(Long.class), any()))
+                .thenReturn(Optional.of(mockItemRequest));
         doReturn(mockItemRequestDto).when(itemRequestMapper).toItemRequestDto(any());
 
         mvc.perform(get("/requests/1")
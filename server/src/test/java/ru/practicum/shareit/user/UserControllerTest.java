@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -13,6 +14,7 @@ import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -56,8 +58,8 @@ class UserControllerTest {
 
     @Test
     void testGetUserById() throws Exception {
-        when(userService.getUserById(any(Long.class)))
-                .thenReturn(mockUser);
+        when(userService.getUserByIdIfModified(any(Long.class), any()))
+                .thenReturn(Optional.of(mockUser));
         doReturn(mockUserDto).when(userMapper).toUserDto(any());
 
         mvc.perform(get("/users/1"))
@@ -101,6 +103,20 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email", is(mockUserDto.getEmail())));
     }
 
+    @Test
+    void testConcurrentUpdateIsConflict() throws Exception {
+        when(userService.updateUser(any(Long.class), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+        mvc.perform(patch("/users/1")
+                        .content(mapper.writeValueAsString(mockUserDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
     @Test
     void testDeleteUser() throws Exception {
         mvc.perform(delete("/users/1"))
@@ -13,6 +13,7 @@ import ru.practicum.shareit.exception.ObjectNotFountException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -86,6 +87,42 @@ class UserServiceImplUnitTest {
         assertEquals("Пользователь с id 1 не существует", exception.getMessage());
     }
 
+    @Test
+    void testGetUserByIdIfModified() throws ObjectNotFountException {
+        Mockito.when(userRepository.findVersionById(Mockito.any(Long.class)))
+                .thenReturn(Optional.of(3L));
+        Mockito.when(userRepository.findById(Mockito.any(Long.class)))
+                .thenReturn(Optional.of(mockUser1));
+
+        List<String> eTags = new ArrayList<>();
+
+        Optional<User> first = userService.getUserByIdIfModified(1L, eTags::add);
+        Optional<User> second = userService.getUserByIdIfModified(1L, eTag -> eTag.equals(eTags.get(0)));
+
+        assertThat(first.isPresent(), is(false));
+        assertThat(second.isPresent(), is(false));
+        Mockito.verify(userRepository, Mockito.never())
+                .findById(1L);
+
+        Mockito.when(userRepository.findVersionById(Mockito.any(Long.class)))
+                .thenReturn(Optional.of(4L));
+
+        User user = userService.getUserByIdIfModified(1L, eTag -> eTag.equals(eTags.get(0))).orElseThrow();
+
+        assertThat(user.getName(), equalTo(mockUser1.getName()));
+    }
+
+    @Test
+    void testGetUserByWrongIdIfModified() {
+        Mockito.when(userRepository.findVersionById(Mockito.any(Long.class)))
+                .thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(ObjectNotFountException.class,
+                () -> userService.getUserByIdIfModified(1L, eTag -> false));
+
+        assertEquals("Пользователь с id 1 не существует", exception.getMessage());
+    }
+
     @Test
     void testGetAll() {
         Mockito.when(userRepository.findAll())